@@ -0,0 +1,108 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 Viktor Alexander Hartung.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.hartrusion.plot;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures autoscaling an axes with many lines. Copied data and ring buffers
+ * keep their min and max values, while external arrays without change
+ * notifications have to be scanned on each autoscale.
+ *
+ * @author Viktor Alexander Hartung
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class AutoscaleBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int lines;
+
+    @Param({"10000"})
+    private int points;
+
+    @Param({"copy", "external", "ringBuffer"})
+    private String source;
+
+    private Axes axes;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(1);
+        axes = new Axes();
+        for (int idx = 0; idx < lines; idx++) {
+            float[] x = new float[points];
+            float[] y = new float[points];
+            for (int jdx = 0; jdx < points; jdx++) {
+                x[jdx] = jdx;
+                y[jdx] = (float) random.nextGaussian() + idx;
+            }
+            Line line = new Line();
+            switch (source) {
+                case "copy":
+                    line.setData(x, y);
+                    break;
+                case "external":
+                    line.setDataSource(x, y);
+                    break;
+                case "ringBuffer":
+                    RingBufferDataSource buffer
+                            = new RingBufferDataSource(points);
+                    buffer.appendBatch(x, y, 0, points);
+                    line.setDataSource(buffer);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown source");
+            }
+            axes.addLine(line);
+        }
+    }
+
+    @Benchmark
+    public void autoX() {
+        axes.autoX();
+    }
+
+    @Benchmark
+    public void autoY() {
+        axes.autoY();
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 Viktor Alexander Hartung.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.hartrusion.plot;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures passing new data to a line, either by copying it with setData, by
+ * referencing it with setDataSource or by appending it to a ring buffer.
+ * Each call is followed by asking for the max value, so the line has to look
+ * at its new values like an autoscale would do.
+ *
+ * @author Viktor Alexander Hartung
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class DataIngestionBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int points;
+
+    private float[] x;
+    private float[] y;
+    private Axes axes;
+    private Line line;
+    private RingBufferDataSource buffer;
+    private Line bufferLine;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        x = new float[points];
+        y = new float[points];
+        Random random = new Random(1);
+        for (int idx = 0; idx < points; idx++) {
+            x[idx] = idx;
+            y[idx] = (float) random.nextGaussian();
+        }
+        axes = new Axes();
+        line = new Line();
+        axes.addLine(line);
+        buffer = new RingBufferDataSource(points);
+        bufferLine = new Line();
+        bufferLine.setDataSource(buffer);
+        axes.addLine(bufferLine);
+    }
+
+    @Benchmark
+    public float setData() {
+        line.setData(x, y);
+        return line.getYMax();
+    }
+
+    @Benchmark
+    public float setDataSource() {
+        line.setDataSource(x, y);
+        return line.getYMax();
+    }
+
+    /**
+     * Appends a hundredth of the buffer capacity, as a live signal display
+     * would do with each new block of samples.
+     */
+    @Benchmark
+    public float appendRingBuffer() {
+        int length = Math.max(points / 100, 1);
+        buffer.appendBatch(x, y, 0, length);
+        return bufferLine.getYMax();
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 Viktor Alexander Hartung.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.hartrusion.plot;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures painting a single line into a BufferedImage, either with the whole
+ * data visible or zoomed in to one percent of it. The data is a noisy sine
+ * with sorted x values, referenced by the line without a copy.
+ *
+ * @author Viktor Alexander Hartung
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx4g"})
+@State(Scope.Thread)
+public class LinePaintBenchmark {
+
+    @Param({"1000", "100000", "10000000", "100000000"})
+    private int points;
+
+    @Param({"false", "true"})
+    private boolean levelOfDetail;
+
+    @Param({"false", "true"})
+    private boolean antialiasing;
+
+    @Param({"false", "true"})
+    private boolean zoomed;
+
+    private Axes axes;
+    private Line line;
+    private BufferedImage image;
+    private Graphics2D g2;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        float[] x = new float[points];
+        float[] y = new float[points];
+        Random random = new Random(1);
+        for (int idx = 0; idx < points; idx++) {
+            x[idx] = idx;
+            y[idx] = (float) (Math.sin(idx * 20.0 / points)
+                    + random.nextGaussian() * 0.1);
+        }
+        axes = new Axes();
+        line = new Line();
+        line.setLevelOfDetail(levelOfDetail);
+        line.setDataSource(x, y);
+        line.dataChanged(); // data is not modified, do not scan on paint
+        axes.addLine(line);
+        axes.autoX();
+        axes.autoY();
+        if (zoomed) {
+            axes.xLim(0.45F * points, 0.46F * points);
+        }
+        image = new BufferedImage(1280, 720, BufferedImage.TYPE_INT_RGB);
+        g2 = image.createGraphics();
+        if (antialiasing) {
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                    RenderingHints.VALUE_ANTIALIAS_ON);
+        }
+        // The first paint lays out the rulers and builds the level of detail.
+        axes.awtPaintComponents(g2, 1279, 719);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        g2.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage paint() {
+        g2.setColor(Color.WHITE);
+        g2.fillRect(0, 0, image.getWidth(), image.getHeight());
+        line.awtPaintComponents(g2);
+        return image;
+    }
+}
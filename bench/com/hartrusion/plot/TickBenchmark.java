@@ -0,0 +1,86 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 Viktor Alexander Hartung.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.hartrusion.plot;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures setting the ticks of a ruler, which also generates the tick
+ * labels. Panning moves the ticks to new values each time, while repeating
+ * the same ticks only has to check that nothing changed.
+ *
+ * @author Viktor Alexander Hartung
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class TickBenchmark {
+
+    private XAxisRuler ruler;
+    private int step;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ruler = new XAxisRuler();
+    }
+
+    @Benchmark
+    public String[] sameTicks() {
+        ruler.setLim(0F, 10F);
+        ruler.setTicks(0F, 1F, 10F);
+        return ruler.tickLabels;
+    }
+
+    @Benchmark
+    public String[] panTicks() {
+        // Moves through a range of 1000 different positions.
+        float lower = (step++ % 1000) * 0.25F;
+        ruler.setLim(lower, lower + 10F);
+        ruler.setTicks(lower, 1F, lower + 10F);
+        return ruler.tickLabels;
+    }
+
+    @Benchmark
+    public String[] zoomTicks() {
+        // Changes the increment and therefore the number of fraction digits.
+        float increment = (step++ % 2 == 0) ? 0.1F : 1F;
+        ruler.setLim(0F, 10F * increment);
+        ruler.setTicks(0F, increment, 10F * increment);
+        return ruler.tickLabels;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 Viktor Alexander Hartung.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.hartrusion.plot;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for autoscaling one axis of an axes, including the
+ * generation of the new ticks and tick labels.
+ *
+ * @author Viktor Alexander Hartung
+ */
+@Name("com.hartrusion.plot.Autoscale")
+@Label("Autoscale")
+@Category({"JMPlot", "Autoscale"})
+@Description("Autoscaling of the x or y axis of an axes")
+class AutoscaleEvent extends Event {
+
+    private static final EventType TYPE
+            = EventType.getEventType(AutoscaleEvent.class);
+
+    @Label("Axes")
+    @Description("Identity hash code of the axes")
+    int axes;
+
+    @Label("Axis")
+    @Description("x or y")
+    String axis;
+
+    @Label("Lines")
+    int lines;
+
+    /**
+     * Creates and begins an event if it is enabled in a running recording.
+     * Nothing is created otherwise.
+     *
+     * @return the begun event, or null if it is not recorded.
+     */
+    static AutoscaleEvent beginIfEnabled() {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        AutoscaleEvent event = new AutoscaleEvent();
+        event.begin();
+        return event;
+    }
+}
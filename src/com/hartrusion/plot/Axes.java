@@ -23,11 +23,25 @@
  */
 package com.hartrusion.plot;
 
+import java.awt.AlphaComposite;
 import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsDevice;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.font.FontRenderContext;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 /**
  *
@@ -35,6 +49,12 @@ import java.util.List;
  */
 public class Axes {
 
+    /**
+     * Transform for copying images pixel by pixel. Only read, setTransform
+     * copies its values.
+     */
+    private static final AffineTransform IDENTITY = new AffineTransform();
+
     /**
      * Contains double values between 0 and 1 which describe the lower left
      * position of the axis system (first two elements), the width and the
@@ -72,6 +92,120 @@ public class Axes {
      */
     private SubPlot parentSubPlot;
 
+    /**
+     * Size of the parent container used for the last layout.
+     */
+    private int layoutWidth, layoutHeight;
+
+    /**
+     * Area that is painted by this axes, calculated for the given decoration
+     * modification count and font.
+     */
+    private final Rectangle bounds = new Rectangle();
+    private int boundsModCount;
+    private Font boundsFont;
+
+    /**
+     * Images of the box and rulers, one for each paint stage, and image of the
+     * whole axes including the lines. All cover the bounds area and are
+     * created with the scale of the graphics object they were painted for.
+     */
+    private boolean decorationCached = true;
+    private boolean imageCached = true;
+    private BufferedImage[] decoration = new BufferedImage[0];
+    private BufferedImage image;
+    private final Rectangle imageBounds = new Rectangle();
+    private boolean decorationValid = false;
+    private boolean imageValid = false;
+    private double imageScaleX, imageScaleY;
+
+    /**
+     * Font render context of the graphics object from the last paint and if
+     * its transform was sheared. The context holds the transform without the
+     * translation, it is compared to find out if the transform has changed, as
+     * getting the transform from the graphics object creates a copy each time.
+     */
+    private FontRenderContext layerContext;
+    private boolean layerSheared;
+
+    /**
+     * Paint version of the axes when the image was painted.
+     */
+    private long imageVersion;
+
+    /**
+     * Paint version of the decoration and the assigned lines, and the
+     * modification counts it was taken for.
+     */
+    private long paintVersion;
+    private int paintDecorationModCount = -1;
+    private int paintLinesModCount = -1;
+
+    /**
+     * Settings of the graphics object from the last paint, used for painting
+     * the images.
+     */
+    private GraphicsConfiguration layerConfiguration;
+    private RenderingHints layerHints;
+    private Font layerFont;
+
+    /**
+     * Second image for rendering in the background, so the image which is
+     * currently displayed is never painted on.
+     */
+    private BufferedImage backImage;
+
+    /**
+     * True while the image is rendered in the background.
+     */
+    private volatile boolean rendering = false;
+
+    /**
+     * Held while the lines or the images of the decoration are painted, so the
+     * background rendering does not need the lock of the axes while it paints
+     * from the snapshots of the lines. Always taken after the lock of the
+     * axes.
+     */
+    private final Object renderLock = new Object();
+
+    /**
+     * Image which was rendered in the background and its area.
+     */
+    private volatile Layer rendered;
+
+    /**
+     * True if the image was rendered in the background and not yet drawn.
+     */
+    private boolean renderedFresh = false;
+
+    /**
+     * Image which was drawn by the last call of paintRendered. The points of
+     * an image are only counted by the first paint which draws it.
+     */
+    private Layer drawnLayer;
+
+    /**
+     * Time spent on the decoration and on the lines, and the points of the
+     * lines which were drawn and skipped, during the current paint.
+     */
+    private long decorationNanos;
+    private long linesNanos;
+    private long pointsRendered;
+    private long pointsSkipped;
+
+    /**
+     * Incremented each time lines are added or removed.
+     */
+    protected int linesModCount = 0;
+
+    /**
+     * If set, adding a line makes this axes the current axes of
+     * VisualizeData. Cleared for axes of figures which are not displayed, as
+     * they might be filled on other threads and VisualizeData would continue
+     * to plot into them.
+     */
+    private boolean currentOnAddLine = true;
+
 //    Axes() {
 //    }
     /**
@@ -80,11 +214,12 @@ public class Axes {
      *
      * @param l Line object that will be drawn within this axis.
      */
-    public void addLine(Line l) {
+    public synchronized void addLine(Line l) {
         if (!hold) {
             lines.clear();
         }
         lines.add(l);
+        linesModCount++;
         // Auto-Assign line colors when adding if no line color is defined yet
         if (l.getLineColor() == null) {
             switch (lines.indexOf(l)) {
@@ -107,7 +242,7 @@ public class Axes {
         }
         l.initComponent(xaxis, yaxis);
         // Adding a line will set this axes to the last current axes.
-        VisualizeData.setCurrentAxes(this);
+        makeCurrent();
         if (!hold) { // trigger autoscale
             autoX();
             autoY();
@@ -136,6 +271,20 @@ public class Axes {
         }
     }
 
+    /**
+     * Creates a new line which displays the values of the given data source
+     * and adds it to this axis like addLine with a line object does.
+     *
+     * @param source Data source providing the line values.
+     * @return the created line object.
+     */
+    public Line addLine(LineDataSource source) {
+        Line l = new Line();
+        l.setDataSource(source);
+        addLine(l);
+        return l;
+    }
+
     /**
      * Paints this axes class and all contained elements into a FigurePanel
      * container. Intended to be called in the paint method from the awt panel
@@ -145,8 +294,250 @@ public class Axes {
      * @param parentWidth pixels, as float value, (float) getWidth() - 1
      * @param parentHeight pixels, as float value, (float) getHeight() - 1
      */
-    public void awtPaintComponents(Graphics g,
+    public synchronized void awtPaintComponents(Graphics g,
+            float parentWidth, float parentHeight) {
+        synchronized (renderLock) {
+            paintComponents(g, parentWidth, parentHeight);
+        }
+    }
+
+    private void paintComponents(Graphics g,
+            float parentWidth, float parentHeight) {
+        AxesPaintEvent event = AxesPaintEvent.beginIfEnabled();
+        resetPaintStatistics();
+        Graphics2D g2 = (Graphics2D) g;
+        if (!prepareLayers(g2, parentWidth, parentHeight)) {
+            // Paint directly, images are not used for printing or rotated
+            // graphics.
+            paintStages(g);
+            commitPaintEvent(event, "direct");
+            return;
+        }
+        if (imageCached) {
+            if (!imageValid || getPaintVersion() != imageVersion
+                    || hasVolatileLines()) {
+                layerHints = g2.getRenderingHints();
+                image = renderImage(image);
+                imageBounds.setBounds(bounds);
+                imageVersion = getPaintVersion();
+                imageValid = true;
+            }
+            g2.drawImage(image, bounds.x, bounds.y,
+                    bounds.width, bounds.height, null);
+            commitPaintEvent(event, "image");
+        } else {
+            if (!decorationValid) {
+                layerHints = g2.getRenderingHints();
+                renderDecoration();
+                decorationValid = true;
+            }
+            for (int stage = 0; stage < decoration.length; stage++) {
+                g2.drawImage(decoration[stage], bounds.x, bounds.y,
+                        bounds.width, bounds.height, null);
+                measureLines(g, stage);
+            }
+            countPoints();
+            commitPaintEvent(event, "decoration");
+        }
+    }
+
+    /**
+     * Paints this axes from an image which is rendered in the background. If
+     * the image is not up to date, a new one is rendered by the given executor
+     * while the previous image, if there is one, is drawn. Once the new image
+     * is available, the area which has to be painted again is passed to the
+     * given callback, which is expected to request a repaint of it.
+     *
+     * <p>
+     * The lines are rendered from snapshots of their data and of the limits,
+     * which are taken with the axes locked. The axes can be modified while the
+     * snapshots are painted, the changes are shown by the next image.
+     *
+     * @param g Graphics object from paint method
+     * @param parentWidth pixels, as float value, (float) getWidth() - 1
+     * @param parentHeight pixels, as float value, (float) getHeight() - 1
+     * @param executor Executes the rendering
+     * @param repaint Called from the rendering thread with the area to paint
+     * again after the image was rendered.
+     */
+    void paintRendered(Graphics g, float parentWidth, float parentHeight,
+            Executor executor, Consumer<Rectangle> repaint) {
+        Graphics2D g2 = (Graphics2D) g;
+        if (!rendering) { // otherwise, the next image is requested later
+            synchronized (this) {
+                if (!prepareLayers(g2, parentWidth, parentHeight)) {
+                    synchronized (renderLock) {
+                        AxesPaintEvent event = AxesPaintEvent.beginIfEnabled();
+                        resetPaintStatistics();
+                        paintStages(g);
+                        commitPaintEvent(event, "direct");
+                    }
+                    return;
+                }
+                // Lines with volatile data are not rendered again for the
+                // paint which displays the image that was just rendered,
+                // otherwise they would be rendered over and over.
+                if (!imageValid || getPaintVersion() != imageVersion
+                        || (hasVolatileLines() && !renderedFresh)) {
+                    rendering = true;
+                    layerHints = g2.getRenderingHints();
+                    executor.execute(() -> renderInBackground(repaint));
+                }
+                renderedFresh = false;
+            }
+        }
+        Layer layer = rendered;
+        pointsRendered = 0;
+        pointsSkipped = 0;
+        if (layer != null) {
+            g2.drawImage(layer.image, layer.bounds.x, layer.bounds.y,
+                    layer.bounds.width, layer.bounds.height, null);
+            if (layer != drawnLayer) {
+                drawnLayer = layer;
+                pointsRendered = layer.pointsRendered;
+                pointsSkipped = layer.pointsSkipped;
+            }
+        }
+    }
+
+    /**
+     * Renders the image for paintRendered. The axes is only locked while the
+     * images of the decoration are updated and the snapshots of the lines are
+     * taken, the lines are painted from the snapshots without the lock.
+     */
+    private void renderInBackground(Consumer<Rectangle> repaint) {
+        AxesPaintEvent event = AxesPaintEvent.beginIfEnabled();
+        Rectangle area;
+        try {
+            BufferedImage target;
+            BufferedImage[] stageImages;
+            Line.Snapshot[] snapshots;
+            int[] snapshotStages;
+            Rectangle targetBounds;
+            long version;
+            long decorationTime = 0;
+            Graphics2D ig;
+            synchronized (this) {
+                synchronized (renderLock) {
+                    if (!decorationCached || !decorationValid) {
+                        long start = System.nanoTime();
+                        renderDecoration();
+                        decorationTime = System.nanoTime() - start;
+                        decorationValid = decorationCached;
+                    }
+                    stageImages = decoration;
+                    // Do not paint into the image that is currently displayed.
+                    target = createLayer(backImage);
+                    ig = createLayerGraphics(target);
+                    targetBounds = new Rectangle(bounds);
+                    version = getPaintVersion();
+                    snapshots = new Line.Snapshot[lines.size()];
+                    snapshotStages = new int[snapshots.length];
+                    for (int idx = 0; idx < snapshots.length; idx++) {
+                        snapshots[idx] = lines.get(idx).snapshot();
+                        snapshotStages[idx] = getPaintStage(lines.get(idx));
+                    }
+                }
+            }
+            long linesTime = 0;
+            long points = 0;
+            long skipped = 0;
+            synchronized (renderLock) {
+                try {
+                    AffineTransform transform = ig.getTransform();
+                    long start;
+                    for (int stage = 0; stage < stageImages.length; stage++) {
+                        // Copy the decoration pixel by pixel, without the
+                        // transform.
+                        ig.setTransform(IDENTITY);
+                        ig.drawImage(stageImages[stage], 0, 0, null);
+                        ig.setTransform(transform);
+                        start = System.nanoTime();
+                        for (int idx = 0; idx < snapshots.length; idx++) {
+                            if (snapshotStages[idx] == stage) {
+                                snapshots[idx].paint(ig);
+                                points += snapshots[idx].getLine()
+                                        .getRenderedPoints();
+                                skipped += snapshots[idx].getLine()
+                                        .getSkippedPoints();
+                            }
+                        }
+                        linesTime += System.nanoTime() - start;
+                    }
+                } finally {
+                    for (Line.Snapshot snapshot : snapshots) {
+                        snapshot.release();
+                    }
+                    ig.dispose();
+                }
+            }
+            synchronized (this) {
+                backImage = image;
+                image = target;
+                area = targetBounds.union(imageBounds);
+                imageBounds.setBounds(targetBounds);
+                imageVersion = version;
+                imageValid = true;
+                renderedFresh = true;
+                rendered = new Layer(target, targetBounds, points, skipped);
+                commitPaintEvent(event, "background", decorationTime,
+                        linesTime, points, skipped);
+            }
+        } finally {
+            rendering = false;
+        }
+        repaint.accept(area);
+    }
+
+    /**
+     * Updates the layout and the area which is painted by this axes and takes
+     * the settings for painting the images from the graphics object.
+     *
+     * @return false if no images can be used for painting on the graphics
+     * object.
+     */
+    private boolean prepareLayers(Graphics2D g2,
             float parentWidth, float parentHeight) {
+        updateLayout(parentWidth, parentHeight);
+        updateBounds(g2);
+        FontRenderContext context = g2.getFontRenderContext();
+        if (!context.equals(layerContext)) {
+            AffineTransform transform = g2.getTransform();
+            layerContext = context;
+            layerSheared = transform.getShearX() != 0.0
+                    || transform.getShearY() != 0.0;
+            if (transform.getScaleX() != imageScaleX
+                    || transform.getScaleY() != imageScaleY) {
+                imageScaleX = transform.getScaleX();
+                imageScaleY = transform.getScaleY();
+                decorationValid = false;
+                imageValid = false;
+            }
+        }
+        if (!(decorationCached || imageCached)
+                || layerSheared
+                || g2.getDeviceConfiguration().getDevice().getType()
+                == GraphicsDevice.TYPE_PRINTER
+                || bounds.isEmpty()) {
+            return false;
+        }
+        // The rendering hints are taken only when the images are painted, as
+        // getting them creates a copy each time.
+        layerConfiguration = g2.getDeviceConfiguration();
+        layerFont = g2.getFont();
+        return true;
+    }
+
+    /**
+     * Calculates the coordinates of the box and the rulers for the given size
+     * of the parent container.
+     *
+     * @param parentWidth pixels, as float value, (float) getWidth() - 1
+     * @param parentHeight pixels, as float value, (float) getHeight() - 1
+     */
+    protected void updateLayout(float parentWidth, float parentHeight) {
+        layoutWidth = (int) parentWidth + 1;
+        layoutHeight = (int) parentHeight + 1;
         // Recalculate the coordinates where the box and lines shall be drawn.
         // This is done like this to prevent rounding issues and keep the pixel
         // values consistent.
@@ -160,6 +551,36 @@ public class Axes {
         boxCoordinates[3]
                 = // lower right Y
                 (int) (parentHeight * (1F - position[1]));
+        // tell both rulers where they shall start and end
+        xaxis.setCoordinates(boxCoordinates[0], boxCoordinates[2]);
+        yaxis.setCoordinates(boxCoordinates[3], boxCoordinates[1]);
+        // Read those coordinates from each others axes to get the position
+        // where to draw the ruler.
+        xaxis.updatePlacement(yaxis);
+        yaxis.updatePlacement(xaxis);
+    }
+
+    /**
+     * Returns the number of stages in which this axes is painted. Each stage
+     * paints its part of the box and rulers first and then its lines, so
+     * rulers of a later stage are drawn above the lines of the earlier ones.
+     * Extensions with additional rulers add a stage for them, which keeps
+     * their rulers above the lines of the primary y axis.
+     *
+     * @return number of stages, 1 for this class
+     */
+    protected int getPaintStages() {
+        return 1;
+    }
+
+    /**
+     * Paints the box and the rulers of the given stage, which only change if
+     * the limits, ticks, labels, colors or the size change.
+     *
+     * @param g Graphics object from paint method
+     * @param stage Paint stage, 0 for the box and the primary rulers
+     */
+    protected void paintDecoration(Graphics g, int stage) {
         if (box.isVisible()) { // Draw the box
             if (boxCoordinates[3] - boxCoordinates[1] > 2
                     && boxCoordinates[2] - boxCoordinates[0] > 2) {
@@ -176,92 +597,457 @@ public class Axes {
                     boxCoordinates[2] - boxCoordinates[0],
                     boxCoordinates[3] - boxCoordinates[1]);
         }
-        // tell both rulers where they shall start and end
-        xaxis.setCoordinates(boxCoordinates[0], boxCoordinates[2]);
-        yaxis.setCoordinates(boxCoordinates[3], boxCoordinates[1]);
-        // Read those coordinates from each others axes to get the position
-        // where to draw the ruler.
-        xaxis.updatePlacement(yaxis);
-        yaxis.updatePlacement(xaxis);
-
         if (xaxis.isVisible()) {
             xaxis.awtPaintComponents(g);
         }
         if (yaxis.isVisible()) {
             yaxis.awtPaintComponents(g);
         }
+    }
 
-        // Plot all known lines
-        for (Line l : lines) {
-            if (l.getYAxis() != yaxis) {
-                continue; // skip foreign lines (only for extensions of Axes)
+    /**
+     * Extends the given rectangle to contain everything that is painted by
+     * paintDecoration.
+     *
+     * @param fm Metrics of the font used for drawing
+     * @param bounds Rectangle which will be extended
+     */
+    protected void addDecorationBounds(FontMetrics fm, Rectangle bounds) {
+        bounds.add(boxCoordinates[0], boxCoordinates[1]);
+        bounds.add(boxCoordinates[2] + 1, boxCoordinates[3] + 1);
+        if (xaxis.isVisible()) {
+            xaxis.addBounds(fm, bounds);
+        }
+        if (yaxis.isVisible()) {
+            yaxis.addBounds(fm, bounds);
+        }
+    }
+
+    /**
+     * Returns a number which changes each time something that is painted by
+     * paintDecoration is modified.
+     *
+     * @return sum of the modification counts
+     */
+    protected int getDecorationModCount() {
+        return box.getModCount() + xaxis.getModCount() + yaxis.getModCount();
+    }
+
+    /**
+     * Returns the stage in which the given line is painted, which is stage 0
+     * for lines assigned to the primary y axis.
+     *
+     * @param l Line of this axes
+     * @return Paint stage, or -1 if the line is not painted by this axes
+     */
+    protected int getPaintStage(Line l) {
+        if (l.getYAxis() != yaxis) {
+            return -1; // foreign line (only for extensions of Axes)
+        }
+        return 0;
+    }
+
+    /**
+     * Paints the lines of the given stage.
+     */
+    private void paintLines(Graphics g, int stage) {
+        Line l;
+        for (int idx = 0; idx < lines.size(); idx++) {
+            l = lines.get(idx);
+            if (getPaintStage(l) == stage) {
+                l.awtPaintComponents(g);
+            }
+        }
+    }
+
+    /**
+     * Paints the decoration and the lines of all stages directly on the
+     * given graphics object.
+     */
+    private void paintStages(Graphics g) {
+        int stages = getPaintStages();
+        for (int stage = 0; stage < stages; stage++) {
+            measureDecoration(g, stage);
+            measureLines(g, stage);
+        }
+        countPoints();
+    }
+
+    /**
+     * Paints the decoration of a stage and adds the time it took to the
+     * statistics of the current paint.
+     */
+    private void measureDecoration(Graphics g, int stage) {
+        long start = System.nanoTime();
+        paintDecoration(g, stage);
+        decorationNanos += System.nanoTime() - start;
+    }
+
+    /**
+     * Paints the lines of a stage and adds the time it took to the statistics
+     * of the current paint.
+     */
+    private void measureLines(Graphics g, int stage) {
+        long start = System.nanoTime();
+        paintLines(g, stage);
+        linesNanos += System.nanoTime() - start;
+    }
+
+    /**
+     * Adds the drawn and skipped points of all lines to the statistics of the
+     * current paint.
+     */
+    private void countPoints() {
+        Line l;
+        for (int idx = 0; idx < lines.size(); idx++) {
+            l = lines.get(idx);
+            pointsRendered += l.getRenderedPoints();
+            pointsSkipped += l.getSkippedPoints();
+        }
+    }
+
+    private void resetPaintStatistics() {
+        decorationNanos = 0;
+        linesNanos = 0;
+        pointsRendered = 0;
+        pointsSkipped = 0;
+    }
+
+    private void commitPaintEvent(AxesPaintEvent event, String mode) {
+        commitPaintEvent(event, mode, decorationNanos, linesNanos,
+                pointsRendered, pointsSkipped);
+    }
+
+    private void commitPaintEvent(AxesPaintEvent event, String mode,
+            long decorationTime, long linesTime, long points, long skipped) {
+        if (event != null && event.shouldCommit()) {
+            event.axes = System.identityHashCode(this);
+            event.axesType = getClass().getSimpleName();
+            event.mode = mode;
+            event.lines = lines.size();
+            event.decorationDuration = decorationTime;
+            event.linesDuration = linesTime;
+            event.pointsRendered = points;
+            event.pointsSkipped = skipped;
+            event.commit();
+        }
+    }
+
+    /**
+     * Number of points of the lines which were drawn by the last paint. Zero
+     * if the last paint only drew the image of a previous one. An image which
+     * was rendered in the background counts for the first paint which draws
+     * it.
+     *
+     * @return number of points
+     */
+    long getPointsRendered() {
+        return pointsRendered;
+    }
+
+    /**
+     * Number of values of the lines which were outside of the x limits or
+     * decimated by the last paint.
+     *
+     * @return number of values
+     */
+    long getPointsSkipped() {
+        return pointsSkipped;
+    }
+
+    /**
+     * Returns a number which changes each time something that is painted by
+     * this axes is modified, which are the decoration, the assigned lines and
+     * their data. Versions are taken from Line.nextPaintVersion, the largest
+     * one of the axes and its lines is returned as each change produces a
+     * version larger than all others.
+     *
+     * @return version number
+     */
+    private long getPaintVersion() {
+        int decorationModCount = getDecorationModCount();
+        if (decorationModCount != paintDecorationModCount
+                || linesModCount != paintLinesModCount) {
+            paintDecorationModCount = decorationModCount;
+            paintLinesModCount = linesModCount;
+            paintVersion = Line.nextPaintVersion();
+        }
+        long version = paintVersion;
+        for (int idx = 0; idx < lines.size(); idx++) {
+            version = Math.max(version, lines.get(idx).getPaintVersion());
+        }
+        return version;
+    }
+
+    private boolean hasVolatileLines() {
+        for (int idx = 0; idx < lines.size(); idx++) {
+            if (lines.get(idx).hasVolatileData()) {
+                return true;
             }
-            l.awtPaintComponents(g);
         }
+        return false;
+    }
+
+    /**
+     * Calculates the area that is painted by this axes if something that is
+     * painted by paintDecoration or the font has changed. The images of the
+     * axes will be painted again then.
+     */
+    private void updateBounds(Graphics2D g2) {
+        int modCount = getDecorationModCount();
+        if (boundsFont != null
+                && boundsModCount == modCount
+                && g2.getFont().equals(boundsFont)) {
+            return;
+        }
+        bounds.setBounds(boxCoordinates[0], boxCoordinates[1], 0, 0);
+        addDecorationBounds(g2.getFontMetrics(), bounds);
+        bounds.grow(2, 2); // stroke width and antialiasing
+        Rectangle.intersect(bounds,
+                new Rectangle(0, 0, layoutWidth, layoutHeight), bounds);
+        boundsModCount = modCount;
+        boundsFont = g2.getFont();
+        decorationValid = false;
+        imageValid = false;
     }
 
-    public void xLim(float x1, float x2) {
+    /**
+     * Paints the images of the box and rulers of each stage.
+     */
+    private void renderDecoration() {
+        int stages = getPaintStages();
+        if (decoration.length != stages) {
+            decoration = Arrays.copyOf(decoration, stages);
+        }
+        Graphics2D ig;
+        for (int stage = 0; stage < stages; stage++) {
+            decoration[stage] = createLayer(decoration[stage]);
+            ig = createLayerGraphics(decoration[stage]);
+            measureDecoration(ig, stage);
+            ig.dispose();
+        }
+    }
+
+    /**
+     * Paints the image of the whole axes, taking the images of the box and
+     * rulers if they are enabled.
+     *
+     * @param target Image to paint on, replaced if it has the wrong size.
+     * @return the painted image.
+     */
+    private BufferedImage renderImage(BufferedImage target) {
+        if (decorationCached && !decorationValid) {
+            renderDecoration();
+            decorationValid = true;
+        }
+        target = createLayer(target);
+        Graphics2D ig = createLayerGraphics(target);
+        AffineTransform transform = ig.getTransform();
+        int stages = getPaintStages();
+        for (int stage = 0; stage < stages; stage++) {
+            if (decorationCached) {
+                // Copy the decoration pixel by pixel, without the transform.
+                ig.setTransform(IDENTITY);
+                ig.drawImage(decoration[stage], 0, 0, null);
+                ig.setTransform(transform);
+            } else {
+                measureDecoration(ig, stage);
+            }
+            measureLines(ig, stage);
+        }
+        countPoints();
+        ig.dispose();
+        return target;
+    }
+
+    /**
+     * Returns an image covering the painted area of this axes in the
+     * resolution of the device. The previous image is returned if it has the
+     * required size.
+     */
+    private BufferedImage createLayer(BufferedImage previous) {
+        int width = (int) Math.ceil(bounds.width * imageScaleX);
+        int height = (int) Math.ceil(bounds.height * imageScaleY);
+        if (previous != null
+                && previous.getWidth() == width
+                && previous.getHeight() == height) {
+            return previous;
+        }
+        return layerConfiguration.createCompatibleImage(
+                width, height, Transparency.TRANSLUCENT);
+    }
+
+    /**
+     * Clears the given image and creates a graphics object to paint on it
+     * with the same coordinates, font and rendering hints as the graphics
+     * object of the last paint.
+     */
+    private Graphics2D createLayerGraphics(BufferedImage layer) {
+        Graphics2D ig = layer.createGraphics();
+        ig.setComposite(AlphaComposite.Clear);
+        ig.fillRect(0, 0, layer.getWidth(), layer.getHeight());
+        ig.setComposite(AlphaComposite.SrcOver);
+        ig.setRenderingHints(layerHints);
+        ig.setFont(layerFont);
+        ig.scale(imageScaleX, imageScaleY);
+        ig.translate(-bounds.x, -bounds.y);
+        return ig;
+    }
+
+    /**
+     * Returns the area which was covered by this axes, including rulers and
+     * labels, when it was painted last time.
+     *
+     * @return Rectangle in coordinates of the parent container, empty if the
+     * axes was not painted yet.
+     */
+    public Rectangle getBounds() {
+        return new Rectangle(bounds);
+    }
+
+    /**
+     * Stores the area which was covered by this axes when it was painted last
+     * time in the given rectangle, without creating a new one.
+     *
+     * @param rv Rectangle which will be set to the area
+     * @return the given rectangle
+     */
+    public Rectangle getBounds(Rectangle rv) {
+        rv.setBounds(bounds);
+        return rv;
+    }
+
+    /**
+     * Makes the axes paint everything again on the next paint instead of using
+     * the image from the previous paint. Changes to the axes and the data of
+     * the lines are detected automatically, this is only needed if something
+     * else was modified, like the content of an array which is used as an
+     * external line data source without notifying the line.
+     */
+    public synchronized void invalidate() {
+        imageValid = false;
+    }
+
+    /**
+     * Returns whether the whole axes is kept as an image between paints.
+     *
+     * @return true if enabled
+     */
+    public boolean isImageCached() {
+        return imageCached;
+    }
+
+    /**
+     * Sets whether the whole axes, including the lines, is kept as an image
+     * between paints. The image is drawn again only if the axes or the data of
+     * one of its lines has changed, so figures with multiple axes only paint
+     * the axes which were modified. It is never used for printing.
+     *
+     * @param imageCached true to enable, default is true.
+     */
+    public synchronized void setImageCached(boolean imageCached) {
+        this.imageCached = imageCached;
+        image = null;
+        imageValid = false;
+    }
+
+    /**
+     * Returns whether the box and rulers are kept as an image between paints.
+     *
+     * @return true if enabled
+     */
+    public boolean isDecorationCached() {
+        return decorationCached;
+    }
+
+    /**
+     * Sets whether the box and rulers are kept as an image between paints.
+     * With the image, a paint after a change of the line data only needs to
+     * draw the image and the lines. The image is painted again when limits,
+     * ticks, labels, colors or the size change. It is never used for
+     * printing.
+     *
+     * @param decorationCached true to enable, default is true.
+     */
+    public synchronized void setDecorationCached(boolean decorationCached) {
+        this.decorationCached = decorationCached;
+        decoration = new BufferedImage[0];
+        decorationValid = false;
+        imageValid = false;
+    }
+
+    public synchronized void xLim(float x1, float x2) {
         xaxis.setLim(x1, x2);
         xaxis.setTicks(x1, (x2 - x1) / 10F, x2);
     }
 
-    public void yLim(float y1, float y2) {
+    public synchronized void yLim(float y1, float y2) {
         yaxis.setLim(y1, y2);
         yaxis.setTicks(y1, (y2 - y1) / 10F, y2);
     }
 
-    public void xlabel(String s) {
+    public synchronized void xlabel(String s) {
         xaxis.setLabel(s);
     }
 
-    public void ylabel(String s) {
+    public synchronized void ylabel(String s) {
         yaxis.setLabel(s);
     }
 
     /**
      * Autoscale the x-Axes
      */
-    public void autoX() {
+    public synchronized void autoX() {
+        AutoscaleEvent event = AutoscaleEvent.beginIfEnabled();
         boolean valueFound = false;
         float xMax = Float.MIN_VALUE;
         float xMin = Float.MAX_VALUE;
+        float lineMin, lineMax;
         for (Line l : lines) {
-            if (l.getXMin() < xMin) {
-                xMin = l.getXMin();
+            l.invalidateExternalData();
+            lineMin = l.getXMin();
+            lineMax = l.getXMax();
+            if (lineMin < xMin) {
+                xMin = lineMin;
             }
-            if (l.getXMax() > xMax) {
-
-                xMax = l.getXMax();
+            if (lineMax > xMax) {
+                xMax = lineMax;
             }
             valueFound = true;
         }
         if (valueFound) {
             xLim(xMin, xMax);
         }
+        commitAutoscaleEvent(event, "x");
     }
 
     /**
      * Autoscale the y-Axes
      */
-    public void autoY() {
+    public synchronized void autoY() {
+        AutoscaleEvent event = AutoscaleEvent.beginIfEnabled();
         boolean valueFound = false;
         float yMax = Float.MIN_VALUE;
         float yMin = Float.MAX_VALUE;
+        float lineMin, lineMax;
         for (Line l : lines) {
             if (l.getYAxis() != yaxis) {
                 continue; // This line is assigned to a different ruler.
             }
-            if (l.getYMin() == Float.MAX_VALUE) {
+            l.invalidateExternalData();
+            lineMin = l.getYMin();
+            lineMax = l.getYMax();
+            if (lineMin == Float.MAX_VALUE) {
                 continue; // probably just an array of NaN.
             }
-            if (l.getYMin() == Float.MIN_VALUE) {
+            if (lineMin == Float.MIN_VALUE) {
                 continue; // probably just an array of NaN.
             }
-            if (l.getYMin() < yMin) {
-                yMin = l.getYMin();
+            if (lineMin < yMin) {
+                yMin = lineMin;
             }
-            if (l.getYMax() > yMax) {
-                yMax = l.getYMax();
+            if (lineMax > yMax) {
+                yMax = lineMax;
             }
             valueFound = true;
         }
@@ -273,6 +1059,16 @@ public class Axes {
         if (valueFound) {
             yLim(yMin, yMax);
         }
+        commitAutoscaleEvent(event, "y");
+    }
+
+    private void commitAutoscaleEvent(AutoscaleEvent event, String axis) {
+        if (event != null && event.shouldCommit()) {
+            event.axes = System.identityHashCode(this);
+            event.axis = axis;
+            event.lines = lines.size();
+            event.commit();
+        }
     }
 
     /**
@@ -282,7 +1078,7 @@ public class Axes {
      *
      * @param value true - on, false - off
      */
-    public void setHold(boolean value) {
+    public synchronized void setHold(boolean value) {
         hold = value;
     }
 
@@ -301,7 +1097,7 @@ public class Axes {
      *
      * @param position 0..3 array with x, y, width, height
      */
-    public void setPosition(float[] position) {
+    public synchronized void setPosition(float[] position) {
         System.arraycopy(position, 0, this.position, 0, position.length);
     }
 
@@ -319,7 +1115,7 @@ public class Axes {
      * @param width
      * @param height
      */
-    public void setPosition(float x, float y, float width, float height) {
+    public synchronized void setPosition(float x, float y, float width, float height) {
         position[0] = x;
         position[1] = y;
         position[2] = width;
@@ -334,6 +1130,26 @@ public class Axes {
         this.parentSubPlot = parent;
     }
 
+    /**
+     * Sets whether adding a line makes this axes the current axes of
+     * VisualizeData.
+     *
+     * @param currentOnAddLine true to set it as current axes, default is true.
+     */
+    void setCurrentOnAddLine(boolean currentOnAddLine) {
+        this.currentOnAddLine = currentOnAddLine;
+    }
+
+    /**
+     * Sets this axes as the current axes of VisualizeData if this is enabled
+     * for adding lines.
+     */
+    void makeCurrent() {
+        if (currentOnAddLine) {
+            VisualizeData.setCurrentAxes(this);
+        }
+    }
+
     /**
      * To identify if an axes object is part of the 
      * 
@@ -355,7 +1171,7 @@ public class Axes {
      * @param endX Screen coordinate (pixels)
      * @param endY Screen coordinate (pixels)
      */
-    public void applyZoomBox(int startX, int startY, int endX, int endY) {
+    public synchronized void applyZoomBox(int startX, int startY, int endX, int endY) {
         float x1 = xaxis.getValueForCoordinate(startX);
         float x2 = xaxis.getValueForCoordinate(endX);
         float minX = Math.min(x1, x2);
@@ -380,7 +1196,7 @@ public class Axes {
      * @param y Screen coordinate (pixels)
      * @param factor Zoom factor
      */
-    public void applyZoomPoint(int x, int y, float factor) {
+    public synchronized void applyZoomPoint(int x, int y, float factor) {
         float valX = xaxis.getValueForCoordinate(x);
         float valY = yaxis.getValueForCoordinate(y);
         float rangeX = (xaxis.lim[1] - xaxis.lim[0]) * factor;
@@ -409,7 +1225,7 @@ public class Axes {
      * @param dx
      * @param dy
      */
-    public void applyPan(int dx, int dy) {
+    public synchronized void applyPan(int dx, int dy) {
         float valDx = (float) dx * (xaxis.lim[1] - xaxis.lim[0])
                 / (float) (xaxis.coordinates[1] - xaxis.coordinates[0]);
         float valY1 = yaxis.getValueForCoordinate(boxCoordinates[1]);
@@ -428,4 +1244,24 @@ public class Axes {
             yLim(minY, maxY);
         }
     }
+
+    /**
+     * Image which is displayed by paintRendered, with the area it covers and
+     * the points of the lines which were drawn and skipped for it.
+     */
+    private static class Layer {
+
+        final BufferedImage image;
+        final Rectangle bounds;
+        final long pointsRendered;
+        final long pointsSkipped;
+
+        Layer(BufferedImage image, Rectangle bounds, long pointsRendered,
+                long pointsSkipped) {
+            this.image = image;
+            this.bounds = bounds;
+            this.pointsRendered = pointsRendered;
+            this.pointsSkipped = pointsSkipped;
+        }
+    }
 }
@@ -0,0 +1,94 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 Viktor Alexander Hartung.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.hartrusion.plot;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event for painting one axes. The decoration duration is
+ * the time spent on the box, rulers and labels, the lines duration is the
+ * time spent on the lines. Both are zero if the axes was only drawn from its
+ * image of a previous paint.
+ *
+ * @author Viktor Alexander Hartung
+ */
+@Name("com.hartrusion.plot.AxesPaint")
+@Label("Axes Paint")
+@Category({"JMPlot", "Paint"})
+@Description("Painting of one axes with its rulers and lines")
+class AxesPaintEvent extends Event {
+
+    private static final EventType TYPE
+            = EventType.getEventType(AxesPaintEvent.class);
+
+    @Label("Axes")
+    @Description("Identity hash code of the axes")
+    int axes;
+
+    @Label("Axes Type")
+    String axesType;
+
+    @Label("Mode")
+    @Description("direct, image, decoration or background")
+    String mode;
+
+    @Label("Lines")
+    int lines;
+
+    @Label("Decoration Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    long decorationDuration;
+
+    @Label("Lines Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    long linesDuration;
+
+    @Label("Points Rendered")
+    long pointsRendered;
+
+    @Label("Points Skipped")
+    @Description("Points outside of the x limits or merged by decimation")
+    long pointsSkipped;
+
+    /**
+     * Creates and begins an event if it is enabled in a running recording.
+     * Nothing is created otherwise, as this is done for each paint.
+     *
+     * @return the begun event, or null if it is not recorded.
+     */
+    static AxesPaintEvent beginIfEnabled() {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        AxesPaintEvent event = new AxesPaintEvent();
+        event.begin();
+        return event;
+    }
+}
@@ -40,6 +40,13 @@ abstract class AxisElementProperties {
     protected Color color;
     protected Stroke stroke;
 
+    /**
+     * Incremented each time a property that changes the appearance of the
+     * element is modified. Allows the axes to keep a drawn image of the
+     * element until it changes.
+     */
+    protected int modCount = 0;
+
     /**
      * Applies set properties (Color, Linewidth, ...) to a provided graphics
      * element. Intended to be called before the drawing to set the properties
@@ -55,6 +62,7 @@ abstract class AxisElementProperties {
 
     public void setVisible(boolean visible) {
         this.visible = visible;
+        modCount++;
     }
 
     /**
@@ -73,5 +81,16 @@ abstract class AxisElementProperties {
      */
     public void setColor(Color color) {
         this.color = color;
+        modCount++;
+    }
+
+    /**
+     * Returns a number which changes each time the appearance of this element
+     * is modified.
+     *
+     * @return modification count
+     */
+    int getModCount() {
+        return modCount;
     }
 }
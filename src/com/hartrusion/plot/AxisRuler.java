@@ -25,9 +25,12 @@ package com.hartrusion.plot;
 
 import java.awt.BasicStroke;
 import java.awt.Color;
+import java.awt.FontMetrics;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
+import java.util.Arrays;
 
 /**
  * Represents the axis line and has some common values and methods like scaling,
@@ -63,6 +66,13 @@ abstract class AxisRuler extends AxisElementProperties {
      */
     protected int[] coordinates = new int[2];
 
+    /**
+     * Transforms values to pixel coordinates for the current limits and
+     * coordinates. Replaced each time one of them changes, so lines can be
+     * drawn with a previous transform while the ruler is modified.
+     */
+    private AxisTransform transform;
+
     /**
      * Placement of the axis as awt element coordinates. For the X-Axis, this is
      * the Y value where the axis will be placed and for Y it is the X value.
@@ -98,9 +108,23 @@ abstract class AxisRuler extends AxisElementProperties {
 
     private NumberFormat numberFormat = DecimalFormat.getInstance();
 
+    private final TickLabelCache labelCache = new TickLabelCache();
+
+    /**
+     * Maximum fraction digits the tick labels were generated with, -1 if the
+     * tick values changed since then.
+     */
+    private int labelFractionDigits = -1;
+
     protected boolean labelVisible = false;
     protected String label;
 
+    /**
+     * Widths and glyphs of the tick labels and the label, for the font used
+     * by the last paint.
+     */
+    protected final TextLayoutCache textCache = new TextLayoutCache();
+
     AxisRuler() {
         color = Color.BLACK;
         stroke = new BasicStroke(1F);
@@ -117,6 +141,7 @@ abstract class AxisRuler extends AxisElementProperties {
         tickCoordinates = new int[6];
         tickLabels = new String[6];
         generateTickLabels();
+        updateTransform();
     }
 
     @Override
@@ -134,8 +159,13 @@ abstract class AxisRuler extends AxisElementProperties {
      * @param upper
      */
     public void setLim(float lower, float upper) {
+        if (lim[0] != lower || lim[1] != upper) {
+            modCount++;
+            transform = null;
+        }
         lim[0] = lower;
         lim[1] = upper;
+        updateTransform();
     }
 
     /**
@@ -144,10 +174,16 @@ abstract class AxisRuler extends AxisElementProperties {
      * @param tick Array containing tick values
      */
     public void setTicks(float[] tick) {
+        if (Arrays.equals(this.tick, tick)) {
+            return;
+        }
         if (this.tick.length != tick.length) {
             this.tick = new float[tick.length];
         }
         System.arraycopy(tick, 0, this.tick, 0, tick.length);
+        modCount++;
+        labelFractionDigits = -1;
+        generateTickLabels();
     }
 
     /**
@@ -173,12 +209,20 @@ abstract class AxisRuler extends AxisElementProperties {
             return; // invalid increment
         }
         int length = Math.round((upper - lower) / increment) + 1;
+        boolean changed = tick.length != length || tick[0] != lower;
         if (tick.length != length) {
             tick = new float[length];
         }
         tick[0] = lower;
+        float value;
         for (int idx = 1; idx < length; idx++) {
-            tick[idx] = tick[idx - 1] + increment;
+            value = tick[idx - 1] + increment;
+            changed = changed || tick[idx] != value;
+            tick[idx] = value;
+        }
+        if (changed) {
+            modCount++;
+            labelFractionDigits = -1;
         }
         generateTickLabels();
     }
@@ -192,8 +236,35 @@ abstract class AxisRuler extends AxisElementProperties {
      * @param end coordinate on the awt draw area
      */
     public void setCoordinates(int start, int end) {
+        if (coordinates[0] != start || coordinates[1] != end) {
+            modCount++;
+            transform = null;
+        }
         coordinates[0] = start;
         coordinates[1] = end;
+        updateTransform();
+    }
+
+    /**
+     * Creates a new transform if the limits or coordinates have changed. This
+     * is called on each paint, so nothing is created if they are the same.
+     */
+    private void updateTransform() {
+        if (transform == null) {
+            transform = new AxisTransform(
+                    coordinates[0], coordinates[1], lim[0], lim[1]);
+        }
+    }
+
+    /**
+     * Returns the transform of values to pixel coordinates for the current
+     * limits and coordinates. It does not change when the ruler is modified
+     * afterwards.
+     *
+     * @return transform of this ruler
+     */
+    AxisTransform getTransform() {
+        return transform;
     }
 
     public int getCoordinateLineStart() {
@@ -217,10 +288,50 @@ abstract class AxisRuler extends AxisElementProperties {
      * @return pixel position in the direction of this axis.
      */
     public int getCoordinateValue(float value) {
-        return coordinates[0]
-                + (int) (((float) (coordinates[1] - coordinates[0]))
-                * (value - lim[0])
-                / (lim[1] - lim[0]));
+        return transform.getCoordinateValue(value);
+    }
+
+    /**
+     * Calculates the position of a double value in reference to this axis'
+     * limits. Same as getCoordinateValue with a float value but the
+     * calculation is done with double precision, so values which differ less
+     * than the float resolution still get different positions. The value is
+     * multiplied with a precomputed scale, which can put it one pixel apart
+     * from the float calculation.
+     *
+     * @param value A value, likely betweel lim[0] and lim[1]
+     * @return pixel position in the direction of this axis.
+     */
+    public int getCoordinateValue(double value) {
+        return transform.getCoordinateValue(value);
+    }
+
+    /**
+     * Calculates the positions of multiple values like getCoordinateValue
+     * does. The position of src[from] is written to dst[0], the following
+     * ones after it.
+     *
+     * @param src Values, likely between lim[0] and lim[1]
+     * @param from Index of the first value to transform
+     * @param to Index after the last value to transform
+     * @param dst Array to write the pixel positions to
+     */
+    public void transform(float[] src, int from, int to, int[] dst) {
+        transform.transform(src, from, to, dst);
+    }
+
+    /**
+     * Calculates the positions of multiple double values like
+     * getCoordinateValue does. The position of src[from] is written to
+     * dst[0], the following ones after it.
+     *
+     * @param src Values, likely between lim[0] and lim[1]
+     * @param from Index of the first value to transform
+     * @param to Index after the last value to transform
+     * @param dst Array to write the pixel positions to
+     */
+    public void transform(double[] src, int from, int to, int[] dst) {
+        transform.transform(src, from, to, dst);
     }
 
     /**
@@ -245,6 +356,7 @@ abstract class AxisRuler extends AxisElementProperties {
      */
     public void setLocation(String s) {
         location = s;
+        modCount++;
     }
 
     public String getLocation() {
@@ -259,31 +371,61 @@ abstract class AxisRuler extends AxisElementProperties {
         if (tickCoordinates.length != tick.length) {
             tickCoordinates = new int[tick.length];
         }
-        for (int idx = 0; idx < tickCoordinates.length; idx++) {
-            tickCoordinates[idx] = getCoordinateValue(tick[idx]);
-        }
+        transform(tick, 0, tick.length, tickCoordinates);
     }
 
     /**
-     * Generates the tickLabels (String) from tick (Float) array. The
+     * Generates the tickLabels (String) from tick (Float) array. The number
+     * of fraction digits depends on the limits. Nothing is done if neither
+     * the ticks nor the number of digits have changed since the labels were
+     * generated.
      */
     protected final void generateTickLabels() {
         // try to calculate a proper number of digits
         int digits = -2 + (int) (Math.log10(lim[1] - lim[0]));
-        if (digits < 0) {
-            numberFormat.setMaximumFractionDigits(-digits);
-        } else {
-            numberFormat.setMaximumFractionDigits(0);
+        int fractionDigits = digits < 0 ? -digits : 0;
+        if (fractionDigits == labelFractionDigits
+                && tickLabels.length == tick.length) {
+            return;
         }
+        numberFormat.setMaximumFractionDigits(fractionDigits);
         if (tickLabels.length != tick.length) {
             tickLabels = new String[tick.length];
         }
         for (int idx = 0; idx < tickLabels.length; idx++) {
-            tickLabels[idx] = numberFormat.format(tick[idx]);
+            tickLabels[idx] = labelCache.getLabel(tick[idx], fractionDigits,
+                    numberFormat);
         }
+        labelFractionDigits = fractionDigits;
     }
 
+    /**
+     * Width of the widest tick label in pixels.
+     *
+     * @param fm Metrics of the font used for drawing
+     * @return width in pixels
+     */
+    protected int getMaxTickLabelWidth(FontMetrics fm) {
+        int width = 0;
+        textCache.setFontMetrics(fm);
+        for (int idx = 0; idx < tickLabels.length; idx++) {
+            width = Math.max(width, textCache.stringWidth(tickLabels[idx]));
+        }
+        return width;
+    }
+
+    /**
+     * Extends the given rectangle to contain everything that is drawn by the
+     * awtPaintComponents method of this ruler with the current placement,
+     * coordinates and labels. The result might be a bit larger than needed.
+     *
+     * @param fm Metrics of the font used for drawing
+     * @param bounds Rectangle which will be extended
+     */
+    abstract void addBounds(FontMetrics fm, Rectangle bounds);
+
     public void setLabel(String s) {
+        modCount++;
         if (s == null) {
             labelVisible = false;
         } else {
@@ -0,0 +1,130 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 Viktor Alexander Hartung.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.hartrusion.plot;
+
+/**
+ * Transforms values to pixel coordinates along an axis ruler, for the limits
+ * and coordinates the ruler had when it was created. The ruler replaces its
+ * transform each time the limits or coordinates change, so a transform can
+ * be kept to draw lines with it while the ruler is modified by other threads.
+ *
+ * <p>
+ * Double values, which is how lines are drawn, are multiplied with a scale
+ * factor that is calculated once. Compared to multiplying with the pixel
+ * range and dividing by the value span for each value, this moves a few
+ * values by one pixel where the result is close to a pixel border. Float
+ * values, used for the ticks, keep the division, so the ticks stay on the
+ * same pixels.
+ *
+ * @author Viktor Alexander Hartung
+ */
+final class AxisTransform {
+
+    /**
+     * Coordinates where the ruler starts and ends and its lower and upper
+     * limit.
+     */
+    final int start, end;
+    final float lower, upper;
+
+    /**
+     * Pixel distance from start to end coordinate and the distance from the
+     * lower to the upper limit in float precision, and the pixels per value
+     * in double precision.
+     */
+    private final float floatRange, floatSpan;
+    private final double scale;
+
+    AxisTransform(int start, int end, float lower, float upper) {
+        this.start = start;
+        this.end = end;
+        this.lower = lower;
+        this.upper = upper;
+        floatRange = (float) (end - start);
+        floatSpan = upper - lower;
+        scale = (double) (end - start)
+                / ((double) upper - (double) lower);
+    }
+
+    /**
+     * Calculates the pixel position of a float value.
+     *
+     * @param value A value, likely between the limits
+     * @return pixel position in the direction of the axis.
+     */
+    int getCoordinateValue(float value) {
+        return start + (int) (floatRange * (value - lower) / floatSpan);
+    }
+
+    /**
+     * Calculates the pixel position of a double value with double precision,
+     * so values which differ less than the float resolution still get
+     * different positions.
+     *
+     * @param value A value, likely between the limits
+     * @return pixel position in the direction of the axis.
+     */
+    int getCoordinateValue(double value) {
+        return start + (int) ((value - lower) * scale);
+    }
+
+    /**
+     * Calculates the positions of multiple values. The position of src[from]
+     * is written to dst[0], the following ones after it.
+     *
+     * @param src Values, likely between the limits
+     * @param from Index of the first value to transform
+     * @param to Index after the last value to transform
+     * @param dst Array to write the pixel positions to
+     */
+    void transform(float[] src, int from, int to, int[] dst) {
+        // Local copies allow the loop to be compiled without reloading the
+        // fields on each step.
+        final int s = start;
+        final float r = floatRange;
+        final float d = floatSpan;
+        final float l = lower;
+        for (int idx = from; idx < to; idx++) {
+            dst[idx - from] = s + (int) (r * (src[idx] - l) / d);
+        }
+    }
+
+    /**
+     * Calculates the positions of multiple double values. The position of
+     * src[from] is written to dst[0], the following ones after it.
+     *
+     * @param src Values, likely between the limits
+     * @param from Index of the first value to transform
+     * @param to Index after the last value to transform
+     * @param dst Array to write the pixel positions to
+     */
+    void transform(double[] src, int from, int to, int[] dst) {
+        final int s = start;
+        final double k = scale;
+        final double l = lower;
+        for (int idx = from; idx < to; idx++) {
+            dst[idx - from] = s + (int) ((src[idx] - l) * k);
+        }
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 Viktor Alexander Hartung.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.hartrusion.plot;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Renders and writes many figures to image files concurrently. Each job
+ * creates its own OffscreenFigure, which is filled with axes, lines and
+ * limits by a callback on one of the worker threads, then rendered and
+ * written. Jobs can run at the same time as long as they do not share lines,
+ * axes or data sources. The callbacks must not use the static methods of
+ * VisualizeData, which are not thread safe. Adding lines to the axes of the
+ * figures does not change the current axes of VisualizeData.
+ *
+ * <p>
+ * Only a limited number of jobs are accepted at a time. Submitting more jobs
+ * blocks until earlier jobs are finished, so the data, figures and images in
+ * memory do not grow with the number of jobs that are submitted.
+ *
+ * <pre>
+ * try (BatchExport export = new BatchExport()) {
+ *     for (Run run : runs) {
+ *         export.submit(new File(run.getName() + ".png"), 640, 480, f -&gt; {
+ *             Line l = new Line();
+ *             l.setData(run.getTime(), run.getValues());
+ *             f.getLastAxes().addLine(l);
+ *         }).thenAccept(System.out::println);
+ *     }
+ * }
+ * </pre>
+ *
+ * @author Viktor Alexander Hartung
+ */
+public class BatchExport implements AutoCloseable {
+
+    private final ExecutorService executor;
+
+    /**
+     * Permits for jobs which may be submitted but not finished yet.
+     */
+    private final Semaphore pending;
+
+    private int resolution = OffscreenFigure.DEFAULT_RESOLUTION;
+
+    /**
+     * Creates a batch export with one worker thread for each available
+     * processor.
+     */
+    public BatchExport() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a batch export with the given number of worker threads, which
+     * accepts twice as many jobs at a time.
+     *
+     * @param threads Number of worker threads
+     */
+    public BatchExport(int threads) {
+        this(threads, 2 * threads);
+    }
+
+    /**
+     * Creates a batch export.
+     *
+     * @param threads Number of worker threads
+     * @param maxPending Number of submitted jobs which may not be finished
+     * before submit blocks. Should be at least the number of threads.
+     */
+    public BatchExport(int threads, int maxPending) {
+        if (threads < 1 || maxPending < 1) {
+            throw new IllegalArgumentException(
+                    "Illegal number of threads or pending jobs.");
+        }
+        AtomicInteger count = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "BatchExport-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        pending = new Semaphore(maxPending);
+    }
+
+    public int getResolution() {
+        return resolution;
+    }
+
+    /**
+     * Sets the resolution of figures of jobs submitted afterwards.
+     *
+     * @param resolution dpi
+     * @see OffscreenFigure#setResolution(int)
+     */
+    public void setResolution(int resolution) {
+        if (resolution < 1) {
+            throw new IllegalArgumentException("Illegal resolution.");
+        }
+        this.resolution = resolution;
+    }
+
+    /**
+     * Submits a figure to be written to a file. The format is taken from the
+     * file name extension. Blocks while the maximum number of jobs is
+     * pending.
+     *
+     * @param file Target file
+     * @param width Width in pixels at default resolution
+     * @param height Height in pixels at default resolution
+     * @param content Called on a worker thread to add axes, lines and so on
+     * to the figure, which contains a default axes.
+     * @return Completes with the timing of the job after the file was
+     * written, or exceptionally if the content callback or writing failed.
+     * @throws InterruptedException If interrupted while waiting for a job to
+     * finish.
+     */
+    public CompletableFuture<Result> submit(File file, int width, int height,
+            Consumer<OffscreenFigure> content) throws InterruptedException {
+        String format = OffscreenFigure.getFormatName(file);
+        OffscreenFigure figure = new OffscreenFigure(width, height);
+        figure.setResolution(resolution);
+        long submitted = System.nanoTime();
+        CompletableFuture<Result> future = new CompletableFuture<>();
+        pending.acquire();
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(
+                            export(figure, content, file, format, submitted));
+                } catch (Throwable ex) {
+                    future.completeExceptionally(ex);
+                } finally {
+                    pending.release();
+                }
+            });
+        } catch (RuntimeException ex) { // rejected after close
+            pending.release();
+            throw ex;
+        }
+        return future;
+    }
+
+    private static Result export(OffscreenFigure figure,
+            Consumer<OffscreenFigure> content, File file, String format,
+            long submitted) throws Exception {
+        long start = System.nanoTime();
+        content.accept(figure);
+        long populated = System.nanoTime();
+        long rendered;
+        if (OffscreenFigure.isVectorFormat(format)) {
+            // Painted while writing, there is no image to render.
+            rendered = populated;
+            figure.write(file, format);
+        } else {
+            BufferedImage img = figure.render();
+            rendered = System.nanoTime();
+            figure.write(img, file, format);
+        }
+        long written = System.nanoTime();
+        return new Result(file, start - submitted, populated - start,
+                rendered - populated, written - rendered);
+    }
+
+    /**
+     * Stops accepting jobs and waits until all submitted jobs are finished.
+     * If the calling thread gets interrupted, it stops waiting and keeps its
+     * interrupted status while the jobs continue in the background.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                // keep waiting, jobs are never cancelled
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Timing of a finished job. All times are in nanoseconds.
+     */
+    public static class Result {
+
+        private final File file;
+        private final long queueTime;
+        private final long contentTime;
+        private final long renderTime;
+        private final long writeTime;
+
+        Result(File file, long queueTime, long contentTime,
+                long renderTime, long writeTime) {
+            this.file = file;
+            this.queueTime = queueTime;
+            this.contentTime = contentTime;
+            this.renderTime = renderTime;
+            this.writeTime = writeTime;
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        /**
+         * Time from submitting the job until a worker started it.
+         *
+         * @return nanoseconds
+         */
+        public long getQueueTime() {
+            return queueTime;
+        }
+
+        /**
+         * Time taken by the content callback to fill the figure.
+         *
+         * @return nanoseconds
+         */
+        public long getContentTime() {
+            return contentTime;
+        }
+
+        /**
+         * Time for rendering the figure into an image. Zero for vector
+         * formats, which are painted while writing.
+         *
+         * @return nanoseconds
+         */
+        public long getRenderTime() {
+            return renderTime;
+        }
+
+        /**
+         * Time for encoding and writing the image file.
+         *
+         * @return nanoseconds
+         */
+        public long getWriteTime() {
+            return writeTime;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: queue %.1f ms, content %.1f ms, "
+                    + "render %.1f ms, write %.1f ms", file,
+                    queueTime / 1e6, contentTime / 1e6,
+                    renderTime / 1e6, writeTime / 1e6);
+        }
+    }
+}
@@ -55,6 +55,7 @@ class Box extends AxisElementProperties {
 
     public void setLineColor(Color c) {
         lineColor = c;
+        modCount++;
     }
 
 }
@@ -0,0 +1,98 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 Viktor Alexander Hartung.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.hartrusion.plot;
+
+import java.nio.DoubleBuffer;
+
+/**
+ * Line data source that references two double buffers. The buffers can be heap
+ * buffers or direct buffers. Direct buffers allow to display data that lives
+ * outside of the java heap, like memory provided by native code, without
+ * copying it onto the heap.
+ *
+ * <p>
+ * The values from the position up to the limit of the buffers at the time
+ * this source is created are used. Later changes of position and limit have
+ * no effect, changes of the buffer content will be displayed.
+ *
+ * @author Viktor Alexander Hartung
+ */
+public class DoubleBufferDataSource implements LineDataSource {
+
+    private final DoubleBuffer xdata;
+    private final DoubleBuffer ydata;
+
+    /**
+     * Index in the buffers of the value that is returned for index 0.
+     */
+    private final int xBase, yBase;
+
+    private final int size;
+
+    /**
+     * Creates a data source referencing the given buffers.
+     *
+     * @param x Buffer containing x values
+     * @param y Buffer containing y values
+     */
+    public DoubleBufferDataSource(DoubleBuffer x, DoubleBuffer y) {
+        if (x.remaining() != y.remaining()) {
+            throw new IllegalArgumentException("Length mismatch");
+        }
+        xdata = x;
+        ydata = y;
+        xBase = x.position();
+        yBase = y.position();
+        size = x.remaining();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public double getX(int index) {
+        return xdata.get(xBase + index);
+    }
+
+    @Override
+    public double getY(int index) {
+        return ydata.get(yBase + index);
+    }
+
+    @Override
+    public void getX(int from, int to, double[] dst, int offset) {
+        for (int idx = xBase + from; idx < xBase + to; idx++) {
+            dst[offset++] = xdata.get(idx);
+        }
+    }
+
+    @Override
+    public void getY(int from, int to, double[] dst, int offset) {
+        for (int idx = yBase + from; idx < yBase + to; idx++) {
+            dst[offset++] = ydata.get(idx);
+        }
+    }
+}
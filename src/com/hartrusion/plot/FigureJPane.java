@@ -31,6 +31,7 @@ import java.beans.BeanProperty;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import javax.swing.JComponent;
 
 /**
@@ -46,6 +47,16 @@ import javax.swing.JComponent;
  */
 public class FigureJPane extends JComponent implements Figure {
 
+    /**
+     * Color of the zoom selection rectangle, classic explorer blue.
+     */
+    private static final Color SELECTION_COLOR = new Color(0, 120, 215);
+
+    /**
+     * Translucent background of the render statistics overlay.
+     */
+    private static final Color OVERLAY_COLOR = new Color(255, 255, 224, 208);
+
     /**
      * A list containing all axes that are included in this figure panel.
      */
@@ -67,6 +78,48 @@ public class FigureJPane extends JComponent implements Figure {
 
     private Axes activeAxes = null;
 
+    /**
+     * If true, the axes are rendered into images on the threads of a fork
+     * join pool and the paint method only draws the finished images.
+     */
+    private boolean parallelRendering = false;
+
+    /**
+     * Repaints areas marked dirty at a limited frame rate.
+     */
+    private final RepaintScheduler repaintScheduler
+            = new RepaintScheduler(this);
+
+    /**
+     * Rectangles used during paint, kept to not create new ones each time.
+     */
+    private final Rectangle clipBounds = new Rectangle();
+    private final Rectangle boundsBefore = new Rectangle();
+    private final Rectangle boundsAfter = new Rectangle();
+
+    /**
+     * Statistics of the current paint, reported with the frame paint event.
+     */
+    private int axesPainted;
+    private int axesSkipped;
+    private long pointsRendered;
+    private long pointsSkipped;
+
+    /**
+     * Frame times, repaint requests and drawn points of the recent paints.
+     */
+    private final RenderStatistics renderStatistics = new RenderStatistics();
+
+    /**
+     * If true, the render statistics are drawn in the upper left corner.
+     */
+    private boolean statisticsOverlay = false;
+
+    /**
+     * Area covered by the statistics overlay on the previous paint.
+     */
+    private final Rectangle overlayBounds = new Rectangle();
+
     public FigureJPane() {
         axes.add(new Axes()); // construct the default axes
 
@@ -111,9 +164,9 @@ public class FigureJPane extends JComponent implements Figure {
                                 selectionRect.y + selectionRect.height
                         );
                     }
-                    selectionRect = null;
+                    repaintSelection(null);
                     leftDragStart = null;
-                    repaint();
+                    repaintAxes(activeAxes);
                 } else if (e.getButton() == MouseEvent.BUTTON3) {
                     // stop dragging
                     rightDragStart = null;
@@ -143,8 +196,8 @@ public class FigureJPane extends JComponent implements Figure {
                     int y2 = Math.min(activeAxes.boxCoordinates[3], 
                             Math.max(leftDragStart.y, e.getY()));
 
-                    selectionRect = new Rectangle(x1, y1, x2 - x1, y2 - y1);
-                    repaint();
+                    repaintSelection(
+                            new Rectangle(x1, y1, x2 - x1, y2 - y1));
                     return;
                 }
 
@@ -156,7 +209,7 @@ public class FigureJPane extends JComponent implements Figure {
 
                     activeAxes.applyPan(dx, dy);
                     rightDragStart = e.getPoint();
-                    repaint();
+                    repaintAxes(activeAxes);
                 }
             }
 
@@ -170,7 +223,7 @@ public class FigureJPane extends JComponent implements Figure {
                 // on the rotation direction and apply it to a point zoom.
                 float factor = e.getWheelRotation() < 0 ? 0.8f : 1.25f;
                 targetAxes.applyZoomPoint(e.getX(), e.getY(), factor);
-                repaint();
+                repaintAxes(targetAxes);
             }
         };
         addMouseListener(ma);
@@ -209,25 +262,301 @@ public class FigureJPane extends JComponent implements Figure {
 
     @Override
     public void paintComponent(Graphics g) {
+        long start = System.nanoTime();
+        FramePaintEvent event = FramePaintEvent.beginIfEnabled();
+        axesPainted = 0;
+        axesSkipped = 0;
+        pointsRendered = 0;
+        pointsSkipped = 0;
         super.paintComponent(g);
         ((Graphics2D) g).setRenderingHint(RenderingHints.KEY_ANTIALIASING,
                 RenderingHints.VALUE_ANTIALIAS_ON);
-        for (Axes a : axes) {
-            a.awtPaintComponents(
-                    g, (float) getWidth() - 1, (float) getHeight() - 1);
+        // Without a clip, the rectangle is left as it is and covers
+        // everything.
+        clipBounds.setBounds(Integer.MIN_VALUE / 2, Integer.MIN_VALUE / 2,
+                Integer.MAX_VALUE, Integer.MAX_VALUE);
+        g.getClipBounds(clipBounds);
+        int subPlotAxes = subPlot == null ? 0 : subPlot.getAxesCount();
+        renderStatistics.frameStarted(axes.size() + subPlotAxes);
+        for (int idx = 0; idx < axes.size(); idx++) {
+            paintAxes(g, axes.get(idx), clipBounds, idx);
         }
-        if (subPlot != null) {
-            Iterator<Axes> axIterator = subPlot.getAxesIterator();
-            while (axIterator.hasNext()) {
-                Axes a = axIterator.next();
-                a.awtPaintComponents(
-                        g, (float) getWidth() - 1, (float) getHeight() - 1);
-            }
+        for (int idx = 1; idx <= subPlotAxes; idx++) {
+            paintAxes(g, subPlot.getAxes(idx), clipBounds,
+                    axes.size() + idx - 1);
         }
         if (selectionRect != null) {
-            g.setColor(new Color(0, 120, 215)); // Z.B. klassisches Explorer Blau
+            g.setColor(SELECTION_COLOR);
             g.drawRect(selectionRect.x, selectionRect.y, selectionRect.width, selectionRect.height);
         }
+        repaintScheduler.framePainted();
+        renderStatistics.framePainted(start, System.nanoTime() - start,
+                pointsRendered, pointsSkipped);
+        if (statisticsOverlay) {
+            paintStatisticsOverlay(g);
+        }
+        if (event != null && event.shouldCommit()) {
+            event.axesPainted = axesPainted;
+            event.axesSkipped = axesSkipped;
+            event.clipWidth = Math.min(clipBounds.width, getWidth());
+            event.clipHeight = Math.min(clipBounds.height, getHeight());
+            event.parallelRendering = parallelRendering;
+            event.pointsRendered = pointsRendered;
+            event.pointsSkipped = pointsSkipped;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        repaintScheduler.start();
+    }
+
+    @Override
+    public void removeNotify() {
+        repaintScheduler.stop();
+        super.removeNotify();
+    }
+
+    /**
+     * Paints the axes if it is within the clip area. If the area covered by
+     * the axes has grown beyond the clip area, for example because of longer
+     * tick labels, the missing part will be painted with another repaint.
+     */
+    private void paintAxes(Graphics g, Axes a, Rectangle clip, int index) {
+        Rectangle before = a.getBounds(boundsBefore);
+        if (!before.isEmpty() && !clip.intersects(before)) {
+            axesSkipped++;
+            return; // not affected by this paint
+        }
+        axesPainted++;
+        if (parallelRendering) {
+            // The finished image will request the repaint of its area.
+            a.paintRendered(g, (float) getWidth() - 1,
+                    (float) getHeight() - 1,
+                    ForkJoinPool.commonPool(), this::repaint);
+            countPoints(a, index);
+            return;
+        }
+        a.awtPaintComponents(
+                g, (float) getWidth() - 1, (float) getHeight() - 1);
+        countPoints(a, index);
+        Rectangle after = a.getBounds(boundsAfter);
+        if (!after.equals(before) && !clip.contains(after)) {
+            repaint(after.union(before));
+        }
+    }
+
+    /**
+     * Adds the points of the last paint of the given axes to the statistics.
+     */
+    private void countPoints(Axes a, int index) {
+        pointsRendered += a.getPointsRendered();
+        pointsSkipped += a.getPointsSkipped();
+        renderStatistics.axesPainted(index,
+                a.getPointsRendered(), a.getPointsSkipped());
+    }
+
+    /**
+     * Draws the metrics of the render statistics into the upper left corner.
+     * If the clip covers only a part of the overlay of this and the previous
+     * paint, the overlay area is repainted once more to not leave parts of
+     * old text.
+     */
+    private void paintStatisticsOverlay(Graphics g) {
+        RenderMetrics metrics = renderStatistics.getMetrics();
+        double[] axesRatios = metrics.getAxesDecimationRatios();
+        String[] text = new String[3 + axesRatios.length];
+        text[0] = String.format("%.1f fps, frame %.1f / %.1f / %.1f ms",
+                metrics.getFramesPerSecond(), metrics.getFrameTimeMedian(),
+                metrics.getFrameTime95thPercentile(),
+                metrics.getFrameTime99thPercentile());
+        text[1] = String.format("%d repaints requested, %d painted",
+                metrics.getRepaintRequests(), metrics.getPaints());
+        text[2] = String.format("%.0f points per frame, decimation %.1f:1",
+                metrics.getPointsPerFrame(), metrics.getDecimationRatio());
+        for (int idx = 0; idx < axesRatios.length; idx++) {
+            text[3 + idx] = String.format("axes %d: decimation %.1f:1",
+                    idx + 1, axesRatios[idx]);
+        }
+        FontMetrics fm = g.getFontMetrics();
+        int width = 0;
+        for (String line : text) {
+            width = Math.max(width, fm.stringWidth(line));
+        }
+        Rectangle before = new Rectangle(overlayBounds);
+        overlayBounds.setBounds(2, 2, width + 8,
+                fm.getHeight() * text.length + 6);
+        g.setColor(OVERLAY_COLOR);
+        g.fillRect(overlayBounds.x, overlayBounds.y,
+                overlayBounds.width, overlayBounds.height);
+        g.setColor(Color.BLACK);
+        for (int idx = 0; idx < text.length; idx++) {
+            g.drawString(text[idx], overlayBounds.x + 4, overlayBounds.y + 3
+                    + fm.getAscent() + idx * fm.getHeight());
+        }
+        Rectangle area = overlayBounds.union(before);
+        if (clipBounds.intersects(area) && !clipBounds.contains(area)) {
+            repaint(area);
+        }
+    }
+
+    /**
+     * Repaints the area of the given axes only. All other axes keep their
+     * image from the previous paint unless they overlap that area.
+     *
+     * @param a Axes which was modified.
+     */
+    public void repaintAxes(Axes a) {
+        Rectangle r = a.getBounds();
+        if (r.isEmpty()) {
+            repaint(); // not painted yet, area unknown
+            return;
+        }
+        repaint(r);
+    }
+
+    /**
+     * Marks the whole figure to be repainted with the next frame of the
+     * repaint scheduler. Other than repaint, this can be called after each
+     * change of line data, even at a high rate, as the figure is only
+     * repainted at the maximum frame rate. Can be called from any thread.
+     */
+    public void markDirty() {
+        repaintScheduler.markDirty();
+    }
+
+    /**
+     * Marks the area of the given axes to be repainted with the next frame
+     * of the repaint scheduler. Can be called from any thread.
+     *
+     * @param a Axes which was modified.
+     */
+    public void markDirty(Axes a) {
+        Rectangle r = a.getBounds();
+        if (r.isEmpty()) {
+            repaintScheduler.markDirty(); // not painted yet, area unknown
+            return;
+        }
+        repaintScheduler.markDirty(r);
+    }
+
+    /**
+     * Returns the scheduler which repaints areas marked dirty, for reading
+     * its frame counters.
+     *
+     * @return scheduler of this figure
+     */
+    public RepaintScheduler getRepaintScheduler() {
+        return repaintScheduler;
+    }
+
+    /**
+     * Returns the statistics of the recent paints of this figure, which can
+     * be read from any thread or registered as MBean.
+     *
+     * @return render statistics of this figure
+     */
+    public RenderStatistics getRenderStatistics() {
+        return renderStatistics;
+    }
+
+    public boolean isStatisticsOverlay() {
+        return statisticsOverlay;
+    }
+
+    /**
+     * Displays the render statistics in the upper left corner of the figure.
+     * The overlay shows the frame rate, the median, 95th and 99th percentile
+     * of the frame times, the number of repaint requests and paints, the
+     * drawn points per frame and the decimation ratio of each axes. It is
+     * updated with each paint that covers its area.
+     *
+     * @param statisticsOverlay true to enable, default is false.
+     */
+    @BeanProperty(visualUpdate = true, description
+            = "Display render statistics in the upper left corner.")
+    public void setStatisticsOverlay(boolean statisticsOverlay) {
+        boolean old = this.statisticsOverlay;
+        this.statisticsOverlay = statisticsOverlay;
+        firePropertyChange("statisticsOverlay", old, statisticsOverlay);
+        repaint();
+    }
+
+    /**
+     * Counts the request for the render statistics. All repaint methods end
+     * up here.
+     */
+    @Override
+    public void repaint(long tm, int x, int y, int width, int height) {
+        // Can be called by the super constructor before the field is set.
+        if (renderStatistics != null) {
+            renderStatistics.repaintRequested();
+        }
+        super.repaint(tm, x, y, width, height);
+    }
+
+    public int getMaxFrameRate() {
+        return repaintScheduler.getMaxFrameRate();
+    }
+
+    /**
+     * Sets the maximum number of frames per second for repainting areas that
+     * were marked dirty.
+     *
+     * @param maxFrameRate frames per second, default is 60.
+     */
+    @BeanProperty(preferred = true, description
+            = "Frames per second for repainting changed axes.")
+    public void setMaxFrameRate(int maxFrameRate) {
+        int old = repaintScheduler.getMaxFrameRate();
+        repaintScheduler.setMaxFrameRate(maxFrameRate);
+        firePropertyChange("maxFrameRate", old, maxFrameRate);
+    }
+
+    /**
+     * Sets the zoom selection rectangle and repaints the area of the previous
+     * and the new rectangle.
+     */
+    private void repaintSelection(Rectangle r) {
+        if (selectionRect != null) {
+            repaint(selectionRect.x, selectionRect.y,
+                    selectionRect.width + 1, selectionRect.height + 1);
+        }
+        selectionRect = r;
+        if (r != null) {
+            repaint(r.x, r.y, r.width + 1, r.height + 1);
+        }
+    }
+
+    public boolean isParallelRendering() {
+        return parallelRendering;
+    }
+
+    /**
+     * Enables rendering the axes on background threads. Each axes that has
+     * changed is then rendered into an image by a thread of the common fork
+     * join pool, so multiple axes of a subplot are rendered at the same time
+     * and the event dispatch thread only draws the finished images. Until the
+     * new image of an axes is available, the previous one is displayed.
+     *
+     * <p>
+     * An axes is only locked while snapshots of its lines and limits are
+     * taken, the lines are rendered from the snapshots while the axes can be
+     * modified, for example by panning with the mouse. Line data which is modified by other threads should
+     * be provided by a ring buffer or with change notifications, like it
+     * should be without this option.
+     *
+     * @param parallelRendering true to enable, default is false.
+     */
+    @BeanProperty(preferred = true, visualUpdate = true, description
+            = "Render axes on background threads.")
+    public void setParallelRendering(boolean parallelRendering) {
+        boolean old = this.parallelRendering;
+        this.parallelRendering = parallelRendering;
+        firePropertyChange("parallelRendering", old, parallelRendering);
+        repaint();
     }
 
     public int getYRulers() {
@@ -0,0 +1,79 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 Viktor Alexander Hartung.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.hartrusion.plot;
+
+/**
+ * Line data source that references two float arrays. Changes to the arrays
+ * will be displayed by the line using this source.
+ *
+ * @author Viktor Alexander Hartung
+ */
+public class FloatArrayDataSource implements LineDataSource {
+
+    final float[] xdata;
+    final float[] ydata;
+
+    /**
+     * Creates a data source referencing the given arrays.
+     *
+     * @param x Reference to array of float
+     * @param y Reference to array of float
+     */
+    public FloatArrayDataSource(float[] x, float[] y) {
+        if (x.length != y.length) {
+            throw new IllegalArgumentException("Length mismatch");
+        }
+        xdata = x;
+        ydata = y;
+    }
+
+    @Override
+    public int size() {
+        return xdata.length;
+    }
+
+    @Override
+    public double getX(int index) {
+        return xdata[index];
+    }
+
+    @Override
+    public double getY(int index) {
+        return ydata[index];
+    }
+
+    @Override
+    public void getX(int from, int to, double[] dst, int offset) {
+        for (int idx = from; idx < to; idx++) {
+            dst[offset++] = xdata[idx];
+        }
+    }
+
+    @Override
+    public void getY(int from, int to, double[] dst, int offset) {
+        for (int idx = from; idx < to; idx++) {
+            dst[offset++] = ydata[idx];
+        }
+    }
+}
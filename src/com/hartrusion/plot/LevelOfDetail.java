@@ -0,0 +1,328 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 Viktor Alexander Hartung.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.hartrusion.plot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Multi-resolution summary of the values of a line for fast drawing of large
+ * data sets when zoomed out. The values are grouped into blocks of
+ * consecutive points, and for each block the first, least, largest and last
+ * value is stored. The blocks of one level are then grouped again into the
+ * blocks of the next coarser level, which are FACTOR times larger.
+ *
+ * <p>
+ * When a lot of points land on the same pixel column, a block that lies
+ * completely on one column can be drawn from its summary, which gives the same
+ * first, least, largest and last pixel for that column as drawing all its
+ * points. Only the blocks on the column borders need to be drawn from finer
+ * levels. This only works if the x values are sorted, as the blocks are
+ * located by their position in the data.
+ *
+ * <p>
+ * All methods are synchronized as the summary can be updated by the producer
+ * of the data while it is drawn.
+ *
+ * @author Viktor Alexander Hartung
+ */
+class LevelOfDetail {
+
+    /**
+     * Number of points summarized in one block of the finest level.
+     */
+    static final int BASE_BLOCK = 64;
+
+    /**
+     * Number of blocks of one level that make up one block of the next
+     * coarser level.
+     */
+    static final int FACTOR = 4;
+
+    /**
+     * Shared thread to build summaries in the background. It is a daemon
+     * thread so it does not keep the application running.
+     */
+    private static final ExecutorService BUILDER
+            = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "LevelOfDetail");
+                t.setDaemon(true);
+                return t;
+            });
+
+    private final List<Level> levels = new ArrayList<>();
+
+    /**
+     * Number of points of the data source that are summarized.
+     */
+    private int length = 0;
+
+    private final double[] xBlock = new double[BASE_BLOCK];
+    private final double[] yBlock = new double[BASE_BLOCK];
+
+    /**
+     * Runs the given task on the background thread for building summaries.
+     */
+    static void execute(Runnable task) {
+        BUILDER.execute(task);
+    }
+
+    /**
+     * Recalculates the summary of the values from index from (inclusive) to
+     * to (exclusive). If to is larger than the number of points summarized so
+     * far, the summary is extended up to this point.
+     *
+     * @param source Data source to read the values from
+     * @param from Index of the first changed value
+     * @param to Index after the last changed value
+     */
+    synchronized void update(LineDataSource source, int from, int to) {
+        if (from >= to) {
+            return;
+        }
+        length = Math.max(length, to);
+        if (levels.isEmpty()) {
+            levels.add(new Level(BASE_BLOCK));
+        }
+        Level level = levels.get(0);
+        int firstBlock = from / BASE_BLOCK;
+        int lastBlock = (to - 1) / BASE_BLOCK;
+        level.ensureCapacity(lastBlock + 1);
+        for (int block = firstBlock; block <= lastBlock; block++) {
+            summarizePoints(source, level, block);
+        }
+        level.count = Math.max(level.count, lastBlock + 1);
+
+        // Propagate the changed blocks to the coarser levels until there is
+        // one level with a single block.
+        Level finer;
+        for (int idx = 1; level.count > 1; idx++) {
+            finer = level;
+            if (levels.size() == idx) {
+                levels.add(new Level(finer.blockSize * FACTOR));
+            }
+            level = levels.get(idx);
+            firstBlock /= FACTOR;
+            lastBlock /= FACTOR;
+            level.ensureCapacity(lastBlock + 1);
+            for (int block = firstBlock; block <= lastBlock; block++) {
+                summarizeBlocks(finer, level, block);
+            }
+            level.count = Math.max(level.count, lastBlock + 1);
+        }
+    }
+
+    /**
+     * Number of points of the data source that are summarized.
+     *
+     * @return number of points
+     */
+    synchronized int getLength() {
+        return length;
+    }
+
+    /**
+     * Returns the coarsest level with blocks that do not contain more than
+     * the given number of points, or -1 if even the finest level has larger
+     * blocks.
+     *
+     * @param points Maximum number of points per block
+     * @return Index of the level
+     */
+    synchronized int findLevel(float points) {
+        int found = -1;
+        for (int idx = 0; idx < levels.size(); idx++) {
+            if (levels.get(idx).blockSize <= points) {
+                found = idx;
+            }
+        }
+        return found;
+    }
+
+    synchronized Level getLevel(int index) {
+        return levels.get(index);
+    }
+
+    private void summarizePoints(LineDataSource source, Level level,
+            int block) {
+        int from = block * BASE_BLOCK;
+        int to = Math.min(from + BASE_BLOCK, length);
+        source.getX(from, to, xBlock, 0);
+        source.getY(from, to, yBlock, 0);
+        int count = 0; // finite points
+        int minIndex = 0, maxIndex = 0;
+        boolean gap = false;
+        for (int idx = 0; idx < to - from; idx++) {
+            if (!Double.isFinite(xBlock[idx])
+                    || !Double.isFinite(yBlock[idx])) {
+                gap = true;
+                continue;
+            }
+            if (count == 0) {
+                level.xFirst[block] = xBlock[idx];
+                level.yFirst[block] = yBlock[idx];
+                minIndex = idx;
+                maxIndex = idx;
+            } else if (yBlock[idx] < yBlock[minIndex]) {
+                minIndex = idx;
+            } else if (yBlock[idx] > yBlock[maxIndex]) {
+                maxIndex = idx;
+            }
+            level.xLast[block] = xBlock[idx];
+            level.yLast[block] = yBlock[idx];
+            count++;
+        }
+        level.empty[block] = count == 0;
+        level.gap[block] = gap;
+        level.xMin[block] = xBlock[minIndex];
+        level.yMin[block] = yBlock[minIndex];
+        level.xMax[block] = xBlock[maxIndex];
+        level.yMax[block] = yBlock[maxIndex];
+        level.minFirst[block] = minIndex <= maxIndex;
+    }
+
+    private void summarizeBlocks(Level finer, Level level, int block) {
+        int from = block * FACTOR;
+        int to = Math.min(from + FACTOR, finer.count);
+        int first = -1;
+        int minBlock = 0, maxBlock = 0;
+        boolean gap = false;
+        for (int idx = from; idx < to; idx++) {
+            gap = gap || finer.gap[idx];
+            if (finer.empty[idx]) {
+                gap = true;
+                continue;
+            }
+            if (first < 0) {
+                first = idx;
+                minBlock = idx;
+                maxBlock = idx;
+            } else {
+                if (finer.yMin[idx] < finer.yMin[minBlock]) {
+                    minBlock = idx;
+                }
+                if (finer.yMax[idx] > finer.yMax[maxBlock]) {
+                    maxBlock = idx;
+                }
+            }
+            level.xLast[block] = finer.xLast[idx];
+            level.yLast[block] = finer.yLast[idx];
+        }
+        level.empty[block] = first < 0;
+        level.gap[block] = gap;
+        if (first < 0) {
+            return;
+        }
+        level.xFirst[block] = finer.xFirst[first];
+        level.yFirst[block] = finer.yFirst[first];
+        level.xMin[block] = finer.xMin[minBlock];
+        level.yMin[block] = finer.yMin[minBlock];
+        level.xMax[block] = finer.xMax[maxBlock];
+        level.yMax[block] = finer.yMax[maxBlock];
+        if (minBlock != maxBlock) {
+            level.minFirst[block] = minBlock < maxBlock;
+        } else {
+            level.minFirst[block] = finer.minFirst[minBlock];
+        }
+    }
+
+    /**
+     * Summary of all blocks of the same size. For each block, the first and
+     * last finite point and the points with the least and largest y value
+     * are stored.
+     */
+    static class Level {
+
+        /**
+         * Number of points of the data source per block.
+         */
+        final int blockSize;
+
+        /**
+         * Number of valid blocks.
+         */
+        int count = 0;
+
+        double[] xFirst, yFirst, xLast, yLast;
+        double[] xMin, yMin, xMax, yMax;
+
+        /**
+         * True if the least value was found before the largest value.
+         */
+        boolean[] minFirst;
+
+        /**
+         * True if the block contains NaN or infinite values.
+         */
+        boolean[] gap;
+
+        /**
+         * True if the block contains no finite points at all.
+         */
+        boolean[] empty;
+
+        Level(int blockSize) {
+            this.blockSize = blockSize;
+            allocate(16);
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (xFirst.length < capacity) {
+                allocate(Math.max(capacity, 2 * xFirst.length));
+            }
+        }
+
+        private void allocate(int capacity) {
+            xFirst = grow(xFirst, capacity);
+            yFirst = grow(yFirst, capacity);
+            xLast = grow(xLast, capacity);
+            yLast = grow(yLast, capacity);
+            xMin = grow(xMin, capacity);
+            yMin = grow(yMin, capacity);
+            xMax = grow(xMax, capacity);
+            yMax = grow(yMax, capacity);
+            minFirst = grow(minFirst, capacity);
+            gap = grow(gap, capacity);
+            empty = grow(empty, capacity);
+        }
+
+        private double[] grow(double[] values, int capacity) {
+            double[] grown = new double[capacity];
+            if (values != null) {
+                System.arraycopy(values, 0, grown, 0, count);
+            }
+            return grown;
+        }
+
+        private boolean[] grow(boolean[] values, int capacity) {
+            boolean[] grown = new boolean[capacity];
+            if (values != null) {
+                System.arraycopy(values, 0, grown, 0, count);
+            }
+            return grown;
+        }
+    }
+}
@@ -28,8 +28,12 @@ import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.Rectangle;
+import java.awt.RenderingHints;
 import java.awt.Shape;
 import java.awt.Stroke;
+import java.awt.geom.Path2D;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
  * 2D line object to be drawn on a axes object. The line has references to the
@@ -41,8 +45,60 @@ import java.awt.Stroke;
  */
 public class Line {
 
-    private float[] xdata;
-    private float[] ydata;
+    /**
+     * Provides the x and y values of this line.
+     */
+    private LineDataSource source;
+
+    /**
+     * Data source holding the copied values if setData is used. Only one of
+     * them is used, depending on the type of the arrays.
+     */
+    private FloatArrayDataSource copiedData;
+    private DoubleArrayDataSource copiedDoubleData;
+
+    /**
+     * The data sources of the previous setData call. The next call copies
+     * its values into their arrays if they have the same length and are not
+     * drawn by a paint at that time. Otherwise, new arrays are used.
+     */
+    private FloatArrayDataSource spareData;
+    private DoubleArrayDataSource spareDoubleData;
+
+    /**
+     * The data as it is drawn, replaced as a whole each time the data
+     * changes. A paint takes it once, so it never mixes values, length and
+     * properties of different setData calls. Painting never takes the lock of
+     * the line, everything it needs is derived from this object.
+     */
+    private volatile PaintData paintData
+            = new PaintData(null, 0, false, false, false, null);
+
+    /**
+     * Replaces the paint data from the painting thread, only if no producer
+     * has published newer data in the meantime.
+     */
+    private static final AtomicReferenceFieldUpdater<Line, PaintData>
+            PAINT_DATA = AtomicReferenceFieldUpdater.newUpdater(
+                    Line.class, PaintData.class, "paintData");
+
+    /**
+     * The data drawn by the paint in progress, null if the line is not
+     * painted. setData does not write into its arrays.
+     */
+    private volatile PaintData painting;
+
+    /**
+     * Number of valid points in the data source. This is the source size,
+     * except for external data sources which are filled step by step.
+     */
+    private int length;
+
+    /**
+     * The data source if it is a ring buffer, null otherwise. Ring buffers
+     * keep track of their min and max values themselves.
+     */
+    private RingBufferDataSource ringBuffer;
 
     private boolean noXData;
     private boolean noYData;
@@ -53,22 +109,205 @@ public class Line {
     private AxisRuler xaxis;
     private AxisRuler yaxis;
 
+    /**
+     * Transforms of the rulers used by the paint in progress.
+     */
+    private AxisTransform xTransform, yTransform;
+
     private float xMin, xMax, yMin, yMax;
 
+    /**
+     * Index of the points where xMin, xMax, yMin and yMax were found, -1 if
+     * there are no such points. Used to decide if a change of some values can
+     * be merged with the known min and max values or if all data has to be
+     * scanned again.
+     */
+    private int xMinIndex, xMaxIndex, yMinIndex, yMaxIndex;
+
     /**
      * To determine whether the class holds the data to plot or if a reference
      * to external data is used. If setData is used, the data will be copied to
      * this line object and min and max values will be only calculated once. If
-     * external data is used, min and max will be calculated each time the
-     * values are requested.
+     * external data is used, min and max will be calculated again on each
+     * autoscale and paint, as the data might have been changed.
      */
     private boolean externalDataSource = false;
 
+    /**
+     * Incremented each time the data of this line is known or assumed to be
+     * changed. Properties derived from the data are only valid if they were
+     * calculated for the current version.
+     */
+    private int dataVersion = 0;
+
+    /**
+     * The dataVersion for which the min, max, noData and monotonic properties
+     * were calculated.
+     */
+    private int statisticsVersion = -1;
+
+    /**
+     * Set as soon as the producer of an external data source reports changes
+     * with one of the dataChanged or dataAppended methods. From then on, the
+     * data is no longer assumed to be changed on each paint and autoscale.
+     */
+    private boolean changeNotifications = false;
+
+    /**
+     * True if the x values never decrease from one point to the next and
+     * contain no NaN. This allows to find the visible part of the line with a
+     * binary search instead of walking through all points.
+     */
+    private boolean monotonicX;
+
     // 1: Line ends excatly before it overwrites the box lines.
     // 0: Line can be drawn exactly on the box border line
     // -1: Line will be drawn 1 px over the box border line.
     private static int BOX_PADDING = 0;
 
+    /**
+     * Number of samples per pixel column of the axes box above which the line
+     * will be drawn decimated. All samples which land in the same pixel column
+     * are then collapsed to one vertical segment from the least to the largest
+     * value, which looks the same as drawing all the segments but only needs
+     * one draw call per pixel column.
+     */
+    private float decimationThreshold = 2F;
+
+    /**
+     * Incremented each time a setting that changes how the line is drawn is
+     * modified.
+     */
+    private int appearanceVersion = 0;
+
+    /**
+     * Source of the paint versions of all lines and axes. Each change gets a
+     * number which is larger than all numbers given before, so a version never
+     * comes back to a value it had before, no matter which data source or line
+     * was changed or replaced.
+     */
+    private static final AtomicLong PAINT_VERSIONS = new AtomicLong();
+
+    /**
+     * Paint version and the state of the line it was taken for. A new version
+     * is taken as soon as one of the states differs.
+     */
+    private long paintVersion;
+    private int paintDataVersion = -1;
+    private int paintAppearanceVersion = -1;
+    private RingBufferDataSource paintRingBuffer;
+    private long paintRingBufferModCount = -1;
+
+    /**
+     * Maximum number of points that will be passed to one drawPolyline call.
+     * Longer runs of finite points are split into multiple polylines which
+     * share their end and start point.
+     */
+    private static final int MAX_POLYLINE_POINTS = 4096;
+
+    /**
+     * Area inside the axes box where the line is drawn, kept to not create a
+     * new rectangle on each paint.
+     */
+    private final Rectangle boxArea = new Rectangle();
+
+    /**
+     * Pixel coordinates of the polyline which is currently collected for
+     * drawing. Those arrays are kept between paint calls and are only replaced
+     * by larger ones if the line data grows.
+     */
+    private int[] xPoints = new int[0];
+    private int[] yPoints = new int[0];
+
+    /**
+     * Number of valid points in xPoints and yPoints.
+     */
+    private int nPoints;
+
+    /**
+     * Path for drawing the polyline with antialiasing, kept between paint
+     * calls to not create a new one for each polyline.
+     */
+    private final Path2D.Float polylinePath
+            = new Path2D.Float(Path2D.WIND_EVEN_ODD);
+
+    /**
+     * Statistics of the last paint, which are the number of values of the
+     * line, the number of values within the x limits, the number of points
+     * passed to drawPolyline and how the line was drawn.
+     */
+    private int paintedLength;
+    private int visiblePoints;
+    private long renderedPoints;
+    private String paintMode;
+
+    /**
+     * Number of values that are read from the data source at once into the
+     * chunk arrays.
+     */
+    private static final int CHUNK_SIZE = 512;
+
+    /**
+     * Values read from the data source for painting.
+     */
+    private double[] xChunk, yChunk;
+
+    /**
+     * Pixel coordinates of the values in the paint chunks.
+     */
+    private int[] xPixels, yPixels;
+
+    /**
+     * Values read from the data source for calculating min and max values.
+     * Separate from the paint chunks as changes might be reported from other
+     * threads while painting.
+     */
+    private double[] xStatisticsChunk, yStatisticsChunk;
+
+    /**
+     * Pixel column of the decimated line that is currently collected, with its
+     * first, least, largest and last pixel y coordinate and the number of
+     * points that landed on it.
+     */
+    private int column, columnFirst, columnMin, columnMax, columnLast;
+    private int columnPoints;
+
+    /**
+     * True if the least pixel y coordinate of the current column was found
+     * before the largest one.
+     */
+    private boolean columnMinFirst;
+
+    /**
+     * If enabled, a level of detail summary of the data is built in the
+     * background and used to draw large, zoomed out lines.
+     */
+    private boolean levelOfDetail = false;
+
+    /**
+     * Summary of the data for drawing, null if it is not yet built or if the
+     * data was replaced.
+     */
+    private volatile LevelOfDetail detail;
+
+    /**
+     * True while a summary is built in the background.
+     */
+    private boolean detailBuilding = false;
+
+    /**
+     * Incremented each time the data is replaced as a whole, so summaries that
+     * were built from the previous data will be dropped.
+     */
+    private int detailGeneration = 0;
+
+    /**
+     * Range of values that were reported as changed while a summary was built
+     * in the background. Those have to be summarized again once it is done.
+     */
+    private int detailChangedFrom = Integer.MAX_VALUE;
+    private int detailChangedTo = -1;
+
     /**
      * Called from the axes object when adding the line to the axes. Creates the
      * link between axes and the line by making the rulers known to the line.
@@ -84,42 +323,76 @@ public class Line {
      * reference to the data. This is mainly done to keep compatibility with the
      * matlab usage.
      *
+     * <p>
+     * This can be called from any thread while the line is painted. The
+     * values are copied into arrays which are not drawn at that time and
+     * replace the displayed values as a whole, so a paint shows either the
+     * previous or the new values, and neither waits for the other.
+     *
      * @param x
      * @param y
      */
-    public void setData(float[] x, float[] y) {
+    public synchronized void setData(float[] x, float[] y) {
         if (x.length != y.length) {
             throw new IllegalArgumentException("Length mismatch");
         }
+        FloatArrayDataSource buffer = spareData;
+        if (buffer == null || buffer.size() != x.length
+                || isPainting(buffer)) {
+            buffer = new FloatArrayDataSource(
+                    new float[x.length], new float[y.length]);
+        }
+        System.arraycopy(x, 0, buffer.xdata, 0, x.length);
+        System.arraycopy(y, 0, buffer.ydata, 0, y.length);
+        spareData = copiedData;
+        copiedData = buffer;
+        spareDoubleData = null;
+        copiedDoubleData = null;
+
         externalDataSource = false;
-        if (xdata == null || ydata == null) {
-            xdata = new float[x.length];
-            ydata = new float[y.length];
-        } else if (xdata.length != x.length) {
-            xdata = new float[x.length];
-            ydata = new float[y.length];
-        }
-        
-        System.arraycopy(x, 0, xdata, 0, x.length);
-        System.arraycopy(y, 0, ydata, 0, y.length);
-        
-        updateNoXDataProperty();
-        if (!noXData) {
-            updateXMinProperty();
-            updateXMaxProperty();
-        } else {
-            xMin = 0;
-            xMax = 0;
+        ringBuffer = null;
+        source = buffer;
+        length = x.length;
+
+        dataVersion++;
+        invalidateLevelOfDetail();
+        updateStatistics();
+        requestLevelOfDetail();
+    }
+
+    /**
+     * Copies double data to plot into the line object. The values are kept
+     * and drawn with double precision.
+     *
+     * @param x
+     * @param y
+     */
+    public synchronized void setData(double[] x, double[] y) {
+        if (x.length != y.length) {
+            throw new IllegalArgumentException("Length mismatch");
         }
-        
-        updateNoYDataProperty();
-        if (!noYData) {
-            updateYMinProperty();
-            updateYMaxProperty();
-        } else {
-            yMin = 0;
-            yMax = 0;
+        DoubleArrayDataSource buffer = spareDoubleData;
+        if (buffer == null || buffer.size() != x.length
+                || isPainting(buffer)) {
+            buffer = new DoubleArrayDataSource(
+                    new double[x.length], new double[y.length]);
         }
+        System.arraycopy(x, 0, buffer.xdata, 0, x.length);
+        System.arraycopy(y, 0, buffer.ydata, 0, y.length);
+        spareDoubleData = copiedDoubleData;
+        copiedDoubleData = buffer;
+        spareData = null;
+        copiedData = null;
+
+        externalDataSource = false;
+        ringBuffer = null;
+        source = buffer;
+        length = x.length;
+
+        dataVersion++;
+        invalidateLevelOfDetail();
+        updateStatistics();
+        requestLevelOfDetail();
     }
 
     /**
@@ -127,16 +400,153 @@ public class Line {
      * line data to an external reference, the line plot will display what is
      * stored inside those arrays.
      *
+     * <p>
+     * As the line can not know when the arrays get modified, all data will be
+     * scanned again on each autoscale and paint. Producers can avoid this by
+     * reporting their changes with dataChanged or dataAppended.
+     *
      * @param x Reference to array of float
      * @param y Reference to array of float
      */
     public void setDataSource(float[] x, float[] y) {
-        if (x.length != y.length) {
-            throw new IllegalArgumentException("Length mismatch");
+        setDataSource(new FloatArrayDataSource(x, y));
+    }
+
+    /**
+     * The line will be generated from the given double arrays, which are used
+     * as an external reference like setDataSource with float arrays does.
+     *
+     * @param x Reference to array of double
+     * @param y Reference to array of double
+     */
+    public void setDataSource(double[] x, double[] y) {
+        setDataSource(new DoubleArrayDataSource(x, y));
+    }
+
+    /**
+     * Sets the line data to an external reference of which only the first
+     * values are used. The remaining part of the arrays can be filled later,
+     * the producer then reports the new values with dataAppended.
+     *
+     * @param x Reference to array of float
+     * @param y Reference to array of float
+     * @param length Number of values that are already valid.
+     */
+    public void setDataSource(float[] x, float[] y, int length) {
+        setDataSource(new FloatArrayDataSource(x, y), length);
+    }
+
+    /**
+     * Sets the line data to be read from the given data source each time it
+     * is needed. If the source is a ring buffer, it keeps track of its min and
+     * max values itself and there is no need to report changes of the data.
+     * The same goes for sources with constant values. For other sources, the
+     * same applies as for setDataSource with arrays.
+     *
+     * @param source Data source which provides the line values.
+     */
+    public void setDataSource(LineDataSource source) {
+        setDataSource(source, source.size());
+    }
+
+    /**
+     * Sets the line data to be read from the given data source of which only
+     * the first values are used. The producer reports further valid values
+     * with dataAppended.
+     *
+     * @param source Data source which provides the line values.
+     * @param length Number of values that are already valid.
+     */
+    public synchronized void setDataSource(LineDataSource source,
+            int length) {
+        if (length < 0 || length > source.size()) {
+            throw new IllegalArgumentException("Invalid length");
         }
         externalDataSource = true;
-        xdata = x;
-        ydata = y;
+        if (source instanceof RingBufferDataSource) {
+            ringBuffer = (RingBufferDataSource) source;
+        } else {
+            ringBuffer = null;
+        }
+        // No need to assume changes on each paint if there will be none or if
+        // the ring buffer keeps track of them.
+        changeNotifications = ringBuffer != null
+                || source.hasConstantValues();
+        this.source = source;
+        this.length = length;
+        dataVersion++;
+        invalidateLevelOfDetail();
+        publishPaintData();
+        requestLevelOfDetail();
+    }
+
+    /**
+     * Reports that the data of an external data source has changed in an
+     * unknown way. All data will be scanned again when needed.
+     */
+    public synchronized void dataChanged() {
+        changeNotifications = true;
+        dataVersion++;
+        invalidateLevelOfDetail();
+        publishPaintData();
+        requestLevelOfDetail();
+    }
+
+    /**
+     * Reports that the values of an external data source with an index from
+     * (inclusive) to (exclusive) were modified. If none of the current min
+     * and max values were located in that range, only the modified values
+     * need to be checked to update them.
+     *
+     * @param from Index of the first modified value
+     * @param to Index after the last modified value
+     */
+    public synchronized void dataChanged(int from, int to) {
+        if (from < 0 || to > length || from > to) {
+            throw new IllegalArgumentException("Invalid range");
+        }
+        changeNotifications = true;
+        updateLevelOfDetail(from, to);
+        if (!externalDataSource || ringBuffer != null
+                || statisticsVersion != dataVersion
+                || (xMinIndex >= from && xMinIndex < to)
+                || (xMaxIndex >= from && xMaxIndex < to)
+                || (yMinIndex >= from && yMinIndex < to)
+                || (yMaxIndex >= from && yMaxIndex < to)) {
+            // A previous min or max value might be gone, scan everything.
+            dataVersion++;
+            publishPaintData();
+        } else {
+            mergeStatistics(from, to);
+        }
+        requestLevelOfDetail();
+    }
+
+    /**
+     * Reports that the given number of values was written to an external data
+     * source directly after the values that were valid so far. The line will
+     * then display those values too.
+     *
+     * @param n Number of values that were added.
+     */
+    public synchronized void dataAppended(int n) {
+        if (!externalDataSource || ringBuffer != null) {
+            throw new IllegalStateException("No external data source");
+        }
+        if (n < 0 || n > source.size() - length) {
+            throw new IllegalArgumentException("Exceeds data source length");
+        }
+        changeNotifications = true;
+        int from = length;
+        length += n;
+        updateLevelOfDetail(from, length);
+        if (statisticsVersion != dataVersion) {
+            dataVersion++;
+            publishPaintData();
+        } else {
+            mergeStatistics(from, length);
+        }
+        requestLevelOfDetail();
     }
 
     /**
@@ -146,6 +556,46 @@ public class Line {
      * @param g Graphics object for drawing.
      */
     public void awtPaintComponents(Graphics g) {
+        paint(g, takePaintData(), xaxis.getTransform(), yaxis.getTransform());
+    }
+
+    /**
+     * Takes the data and the transforms of both rulers for painting this line
+     * later, while the rulers and the data might be modified in the meantime.
+     * The data stays marked as painted until the snapshot is painted or
+     * released. To be called with the lock of the axes held.
+     *
+     * @return snapshot for painting
+     */
+    Snapshot snapshot() {
+        return new Snapshot(this, takePaintData(),
+                xaxis.getTransform(), yaxis.getTransform());
+    }
+
+    /**
+     * Takes the current paint data and marks it as painted, so setData does
+     * not write into its arrays.
+     */
+    private PaintData takePaintData() {
+        PaintData data;
+        do {
+            // Checking again makes sure that setData did not take the arrays
+            // before it could see that they are painted.
+            data = paintData;
+            painting = data;
+        } while (data != paintData);
+        return data;
+    }
+
+    /**
+     * Paints the given data with the given transforms of the rulers and ends
+     * marking the data as painted.
+     */
+    private void paint(Graphics g, PaintData data, AxisTransform x,
+            AxisTransform y) {
+        LinePaintEvent event = LinePaintEvent.beginIfEnabled();
+        xTransform = x;
+        yTransform = y;
         setGraphics((Graphics2D) g);
 
         // Set clipping area to only draw inside the axes box area
@@ -154,30 +604,487 @@ public class Line {
         // x line start and end is something like 50 and 450, while the y line
         // is reversed so we have end-start for x with start-end for y height.
         // + and - 1 is to not draw over the box and ruler lines.
-        Rectangle boxArea = new Rectangle(
-                xaxis.getCoordinateLineStart() + BOX_PADDING,
-                yaxis.getCoordinateLineEnd() + BOX_PADDING,
-                xaxis.getCoordinateLineEnd()
-                - xaxis.getCoordinateLineStart() - 2 * BOX_PADDING + 1,
-                yaxis.getCoordinateLineStart()
-                - yaxis.getCoordinateLineEnd() - 2 * BOX_PADDING + 1);
+        boxArea.setBounds(
+                x.start + BOX_PADDING,
+                y.end + BOX_PADDING,
+                x.end - x.start - 2 * BOX_PADDING + 1,
+                y.start - y.end - 2 * BOX_PADDING + 1);
         g.setClip(boxArea);
-        // Plot lines between xdata points
-        for (int idx = 0; idx < xdata.length - 1; idx++) {
-            if (!Float.isFinite(xdata[idx])
-                    || !Float.isFinite(xdata[idx + 1])
-                    || !Float.isFinite(ydata[idx])
-                    || !Float.isFinite(ydata[idx + 1])) {
-                // No lines between points if any value is NaN or Infinity
-                continue;
+
+        try {
+            if (data.source instanceof RingBufferDataSource) {
+                // Prevent values from being overwritten while drawing.
+                synchronized (data.source) {
+                    drawData(g, validateRingBuffer(data));
+                }
+            } else {
+                drawData(g, validateMonotonicX(data));
             }
-            g.drawLine(xaxis.getCoordinateValue(xdata[idx]),
-                    yaxis.getCoordinateValue(ydata[idx]),
-                    xaxis.getCoordinateValue(xdata[idx + 1]),
-                    yaxis.getCoordinateValue(ydata[idx + 1]));
+        } finally {
+            painting = null;
         }
 
         g.setClip(previousClip); // restore previous clipping area
+
+        if (event != null && event.shouldCommit()) {
+            event.line = System.identityHashCode(this);
+            event.mode = paintMode;
+            event.points = paintedLength;
+            event.visiblePoints = visiblePoints;
+            event.pointsRendered = renderedPoints;
+            event.pointsSkipped = getSkippedPoints();
+            event.commit();
+        }
+    }
+
+    /**
+     * Takes the current size and sortedness of a ring buffer into the paint
+     * data. Called with the lock of the ring buffer held.
+     */
+    private PaintData validateRingBuffer(PaintData data) {
+        RingBufferDataSource buffer = (RingBufferDataSource) data.source;
+        int size = buffer.size();
+        boolean sorted = buffer.isMonotonicX();
+        if (data.length == size && data.monotonicX == sorted) {
+            return data;
+        }
+        return replacePaintData(data,
+                new PaintData(buffer, size, sorted, true, false, null));
+    }
+
+    /**
+     * Checks whether the x values of the paint data are sorted if this is not
+     * known yet, or each time for external data sources which do not report
+     * their changes. The values are scanned by the painting thread without
+     * the lock of the line, so producers never wait for painting and
+     * painting never waits for producers.
+     */
+    private PaintData validateMonotonicX(PaintData data) {
+        if (data.scanned && !data.volatileData) {
+            return data;
+        }
+        boolean sorted = isMonotonicX(data.source, data.length);
+        if (data.scanned && data.monotonicX == sorted) {
+            return data;
+        }
+        return replacePaintData(data, new PaintData(data.source, data.length,
+                sorted, true, data.volatileData, data.detail));
+    }
+
+    /**
+     * Publishes paint data which was updated by the painting thread, unless
+     * a producer has replaced the data in the meantime. The updated data is
+     * used for the current paint in any case.
+     */
+    private PaintData replacePaintData(PaintData expected,
+            PaintData updated) {
+        PAINT_DATA.compareAndSet(this, expected, updated);
+        return updated;
+    }
+
+    /**
+     * Returns whether the x values never decrease and contain no NaN, read
+     * with the paint chunks.
+     */
+    private boolean isMonotonicX(LineDataSource values, int length) {
+        if (length == 0) {
+            return false;
+        }
+        ensureChunks();
+        double previousX = 0;
+        int chunkLength;
+        for (int chunk = 0; chunk < length; chunk += CHUNK_SIZE) {
+            chunkLength = Math.min(CHUNK_SIZE, length - chunk);
+            values.getX(chunk, chunk + chunkLength, xChunk, 0);
+            for (int idx = 0; idx < chunkLength; idx++) {
+                // also false for NaN values
+                if ((chunk > 0 || idx > 0) && !(previousX <= xChunk[idx])) {
+                    return false;
+                }
+                previousX = xChunk[idx];
+            }
+        }
+        return !Double.isNaN(previousX) || length > 1;
+    }
+
+    /**
+     * Draws the visible part of the line data, either decimated or not.
+     */
+    private void drawData(Graphics g, PaintData data) {
+        // Only draw the points within the x limits and one more point on
+        // each side, which is possible if x values are sorted.
+        int from = 0;
+        int to = data.length;
+        if (data.monotonicX) {
+            from = Math.max(lowerBound(data,
+                    Math.min(xTransform.lower, xTransform.upper)) - 1, 0);
+            to = Math.min(upperBound(data,
+                    Math.max(xTransform.lower, xTransform.upper)) + 1,
+                    data.length);
+        }
+
+        paintedLength = data.length;
+        visiblePoints = to - from;
+        renderedPoints = 0;
+        ensurePolylineCapacity(Math.min(to - from, MAX_POLYLINE_POINTS));
+        int columns = xTransform.end - xTransform.start + 1;
+        if (columns > 0
+                && (float) (to - from) / (float) columns
+                > decimationThreshold) {
+            LevelOfDetail summary = data.detail;
+            if (summary != null && data.monotonicX
+                    && drawLevelOfDetail(g, summary, data.source,
+                            from, to, columns)) {
+                paintMode = "levelOfDetail";
+                return;
+            }
+            paintMode = "decimated";
+            drawDecimated(g, data.source, from, to);
+        } else {
+            paintMode = "segments";
+            drawSegments(g, data.source, from, to);
+        }
+    }
+
+    /**
+     * Draws a polyline through all data points. NaN or Infinity values end the
+     * current polyline, drawing continues with a new polyline at the next
+     * finite point.
+     *
+     * @param from index of first point to draw
+     * @param to index after the last point to draw
+     */
+    private void drawSegments(Graphics g, LineDataSource values,
+            int from, int to) {
+        int chunkLength;
+        for (int chunk = from; chunk < to; chunk += CHUNK_SIZE) {
+            chunkLength = Math.min(CHUNK_SIZE, to - chunk);
+            values.getX(chunk, chunk + chunkLength, xChunk, 0);
+            values.getY(chunk, chunk + chunkLength, yChunk, 0);
+            xTransform.transform(xChunk, 0, chunkLength, xPixels);
+            yTransform.transform(yChunk, 0, chunkLength, yPixels);
+            for (int idx = 0; idx < chunkLength; idx++) {
+                if (!Double.isFinite(xChunk[idx])
+                        || !Double.isFinite(yChunk[idx])) {
+                    // No lines between points if any value is NaN or Infinity
+                    flushPolyline(g);
+                    continue;
+                }
+                addPoint(g, xPixels[idx], yPixels[idx]);
+            }
+        }
+        flushPolyline(g);
+    }
+
+    /**
+     * Draws the line with all consecutive points that land on the same pixel
+     * column collapsed to the first, least, largest and last value of that
+     * column. The segments between the points of one column would all be
+     * drawn on the same vertical pixel line anyway, so passing only those
+     * four points in the order they appeared gives the same result. The
+     * polyline then continues from the last point of one column to the first
+     * point of the next one.
+     *
+     * @param from index of first point to draw
+     * @param to index after the last point to draw
+     */
+    private void drawDecimated(Graphics g, LineDataSource values,
+            int from, int to) {
+        columnPoints = 0;
+        int chunkLength;
+        for (int chunk = from; chunk < to; chunk += CHUNK_SIZE) {
+            chunkLength = Math.min(CHUNK_SIZE, to - chunk);
+            values.getX(chunk, chunk + chunkLength, xChunk, 0);
+            values.getY(chunk, chunk + chunkLength, yChunk, 0);
+            xTransform.transform(xChunk, 0, chunkLength, xPixels);
+            yTransform.transform(yChunk, 0, chunkLength, yPixels);
+            for (int idx = 0; idx < chunkLength; idx++) {
+                if (!Double.isFinite(xChunk[idx])
+                        || !Double.isFinite(yChunk[idx])) {
+                    // Finish the current column but do not connect it to the
+                    // next finite point.
+                    breakDecimated(g);
+                    continue;
+                }
+                addDecimated(g, xPixels[idx], yPixels[idx]);
+            }
+        }
+        breakDecimated(g);
+    }
+
+    /**
+     * Draws the line decimated like drawDecimated, but takes the first, least,
+     * largest and last point of a block of the level of detail summary instead
+     * of reading all its points if the whole block lands on one pixel column.
+     * Blocks which span more than one column or contain NaN values are drawn
+     * from the blocks of the next finer level, or from the points itself on
+     * the finest level, so the result is the same as drawing all points.
+     *
+     * @param from index of first point to draw
+     * @param to index after the last point to draw
+     * @return false if the summary can not be used for this range.
+     */
+    private boolean drawLevelOfDetail(Graphics g, LevelOfDetail detail,
+            LineDataSource values, int from, int to, int columns) {
+        synchronized (detail) {
+            if (detail.getLength() < to) {
+                return false; // summary is behind the data
+            }
+            // Coarsest level which has at least one block per pixel column.
+            int index = detail.findLevel((float) (to - from) / columns);
+            if (index < 0) {
+                return false;
+            }
+            LevelOfDetail.Level level = detail.getLevel(index);
+            int lastBlock = (to - 1) / level.blockSize;
+            columnPoints = 0;
+            for (int block = from / level.blockSize; block <= lastBlock;
+                    block++) {
+                drawBlock(g, detail, values, index, block, from, to);
+            }
+            breakDecimated(g);
+        }
+        return true;
+    }
+
+    /**
+     * Adds the points of one block of the level of detail summary within the
+     * range from, to to the decimated line.
+     */
+    private void drawBlock(Graphics g, LevelOfDetail detail,
+            LineDataSource values, int index, int block, int from, int to) {
+        LevelOfDetail.Level level = detail.getLevel(index);
+        int start = block * level.blockSize;
+        int end = start + level.blockSize;
+        if (level.empty[block] && start >= from && end <= to) {
+            breakDecimated(g);
+            return;
+        }
+        if (!level.gap[block] && start >= from && end <= to) {
+            int px = xTransform.getCoordinateValue(level.xFirst[block]);
+            if (px == xTransform.getCoordinateValue(level.xLast[block])) {
+                addDecimated(g, px,
+                        yTransform.getCoordinateValue(level.yFirst[block]));
+                if (level.minFirst[block]) {
+                    addDecimated(g, px,
+                            yTransform.getCoordinateValue(level.yMin[block]));
+                    addDecimated(g, px,
+                            yTransform.getCoordinateValue(level.yMax[block]));
+                } else {
+                    addDecimated(g, px,
+                            yTransform.getCoordinateValue(level.yMax[block]));
+                    addDecimated(g, px,
+                            yTransform.getCoordinateValue(level.yMin[block]));
+                }
+                addDecimated(g, px,
+                        yTransform.getCoordinateValue(level.yLast[block]));
+                return;
+            }
+        }
+        if (index > 0) {
+            LevelOfDetail.Level finer = detail.getLevel(index - 1);
+            int lastChild = Math.min((block + 1) * LevelOfDetail.FACTOR,
+                    finer.count);
+            for (int child = block * LevelOfDetail.FACTOR; child < lastChild;
+                    child++) {
+                if ((child + 1) * finer.blockSize > from
+                        && child * finer.blockSize < to) {
+                    drawBlock(g, detail, values, index - 1, child,
+                            from, to);
+                }
+            }
+            return;
+        }
+        // Finest level, draw the points itself.
+        start = Math.max(start, from);
+        end = Math.min(end, to);
+        values.getX(start, end, xChunk, 0);
+        values.getY(start, end, yChunk, 0);
+        xTransform.transform(xChunk, 0, end - start, xPixels);
+        yTransform.transform(yChunk, 0, end - start, yPixels);
+        for (int idx = 0; idx < end - start; idx++) {
+            if (!Double.isFinite(xChunk[idx])
+                    || !Double.isFinite(yChunk[idx])) {
+                breakDecimated(g);
+                continue;
+            }
+            addDecimated(g, xPixels[idx], yPixels[idx]);
+        }
+    }
+
+    /**
+     * Adds a point to the decimated line. Points on the same pixel column as
+     * the previous one are collected until a point on another column follows.
+     */
+    private void addDecimated(Graphics g, int px, int py) {
+        if (columnPoints > 0 && px == column) {
+            if (py < columnMin) {
+                columnMin = py;
+                columnMinFirst = false;
+            } else if (py > columnMax) {
+                columnMax = py;
+                columnMinFirst = true;
+            }
+            columnLast = py;
+            columnPoints++;
+            return;
+        }
+        if (columnPoints > 0) { // finish previous column
+            addColumn(g);
+        }
+        column = px;
+        columnFirst = py;
+        columnMin = py;
+        columnMax = py;
+        columnLast = py;
+        columnMinFirst = true;
+        columnPoints = 1;
+    }
+
+    /**
+     * Finishes the current column of the decimated line and draws the
+     * polyline, so it will not be connected to the next point.
+     */
+    private void breakDecimated(Graphics g) {
+        if (columnPoints > 0) {
+            addColumn(g);
+            columnPoints = 0;
+        }
+        flushPolyline(g);
+    }
+
+    /**
+     * Index of the first point with an x value that is not less than the
+     * given value. Requires monotonic x data.
+     */
+    private int lowerBound(PaintData data, float value) {
+        int low = 0;
+        int high = data.length;
+        int mid;
+        while (low < high) {
+            mid = (low + high) >>> 1;
+            if (data.source.getX(mid) < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Index of the first point with an x value that is greater than the given
+     * value. Requires monotonic x data.
+     */
+    private int upperBound(PaintData data, float value) {
+        int low = 0;
+        int high = data.length;
+        int mid;
+        while (low < high) {
+            mid = (low + high) >>> 1;
+            if (data.source.getX(mid) <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Adds the points of the current decimated pixel column to the polyline,
+     * omitting points that are identical to the previous one.
+     */
+    private void addColumn(Graphics g) {
+        addPoint(g, column, columnFirst);
+        if (columnMinFirst) {
+            addDistinctPoint(g, column, columnMin);
+            addDistinctPoint(g, column, columnMax);
+        } else {
+            addDistinctPoint(g, column, columnMax);
+            addDistinctPoint(g, column, columnMin);
+        }
+        addDistinctPoint(g, column, columnLast);
+    }
+
+    private void addDistinctPoint(Graphics g, int px, int py) {
+        if (xPoints[nPoints - 1] != px || yPoints[nPoints - 1] != py) {
+            addPoint(g, px, py);
+        }
+    }
+
+    /**
+     * Adds a point to the polyline that is currently collected. If the buffer
+     * is full, the collected polyline will be drawn and a new one starts at
+     * its last point, so the line stays continuous.
+     */
+    private void addPoint(Graphics g, int px, int py) {
+        if (nPoints == xPoints.length) {
+            drawPolyline(g);
+            renderedPoints += nPoints;
+            xPoints[0] = xPoints[nPoints - 1];
+            yPoints[0] = yPoints[nPoints - 1];
+            nPoints = 1;
+        }
+        xPoints[nPoints] = px;
+        yPoints[nPoints] = py;
+        nPoints++;
+    }
+
+    /**
+     * Draws the collected polyline, if there is one, and starts a new one.
+     */
+    private void flushPolyline(Graphics g) {
+        if (nPoints > 1) {
+            drawPolyline(g);
+            renderedPoints += nPoints;
+        }
+        nPoints = 0;
+    }
+
+    /**
+     * Draws the collected points. With antialiasing, Java2D converts each
+     * polyline to a new path which grows point by point. Drawing the kept
+     * path gives the same pixels without that. The vector graphics writes
+     * polylines directly and gets them as they are.
+     */
+    private void drawPolyline(Graphics g) {
+        Graphics2D g2 = (Graphics2D) g;
+        if (g2 instanceof VectorGraphics2D
+                || g2.getRenderingHint(RenderingHints.KEY_ANTIALIASING)
+                != RenderingHints.VALUE_ANTIALIAS_ON) {
+            g.drawPolyline(xPoints, yPoints, nPoints);
+            return;
+        }
+        polylinePath.reset();
+        polylinePath.moveTo(xPoints[0], yPoints[0]);
+        for (int idx = 1; idx < nPoints; idx++) {
+            polylinePath.lineTo(xPoints[idx], yPoints[idx]);
+        }
+        g2.draw(polylinePath);
+    }
+
+    /**
+     * Makes sure the polyline buffers can hold at least the given number of
+     * points. The buffers will only be replaced if they are too small.
+     */
+    private void ensurePolylineCapacity(int capacity) {
+        capacity = Math.max(capacity, 2); // minimum to continue a polyline
+        if (xPoints.length < capacity) {
+            xPoints = new int[capacity];
+            yPoints = new int[capacity];
+        }
+        nPoints = 0;
+        ensureChunks();
+    }
+
+    private void ensureChunks() {
+        if (xChunk == null) {
+            xChunk = new double[CHUNK_SIZE];
+            yChunk = new double[CHUNK_SIZE];
+            xPixels = new int[CHUNK_SIZE];
+            yPixels = new int[CHUNK_SIZE];
+        }
     }
 
     private void setGraphics(Graphics2D g2) {
@@ -196,9 +1103,7 @@ public class Line {
      * @return least number
      */
     public float getXMin() {
-        if (externalDataSource) {
-            updateXMinProperty();
-        }
+        validateStatistics();
         return xMin;
     }
 
@@ -210,9 +1115,7 @@ public class Line {
      * @return largest number
      */
     public float getXMax() {
-        if (externalDataSource) {
-            updateXMaxProperty();
-        }
+        validateStatistics();
         return xMax;
     }
 
@@ -224,9 +1127,7 @@ public class Line {
      * @return least number
      */
     public float getYMin() {
-        if (externalDataSource) {
-            updateYMinProperty();
-        }
+        validateStatistics();
         return yMin;
     }
 
@@ -238,9 +1139,7 @@ public class Line {
      * @return largest number
      */
     public float getYMax() {
-        if (externalDataSource) {
-            updateYMaxProperty();
-        }
+        validateStatistics();
         return yMax;
     }
 
@@ -250,9 +1149,7 @@ public class Line {
      * @return false if any finite values are present.
      */
     public boolean hasXValues() {
-        if (externalDataSource) {
-            updateNoXDataProperty();
-        }
+        validateStatistics();
         return !noXData;
     }
 
@@ -262,9 +1159,7 @@ public class Line {
      * @return false if any finite values are present.
      */
     public boolean hasYValues() {
-        if (externalDataSource) {
-            updateNoYDataProperty();
-        }
+        validateStatistics();
         return !noYData;
     }
 
@@ -280,6 +1175,66 @@ public class Line {
     
     public void setLineColor(Color lineColor) {
         this.lineColor = lineColor;
+        appearanceVersion++;
+    }
+
+    /**
+     * Returns the number of samples per pixel column above which the line will
+     * be drawn decimated.
+     *
+     * @return samples per pixel column
+     */
+    public float getDecimationThreshold() {
+        return decimationThreshold;
+    }
+
+    /**
+     * Sets the number of samples per pixel column above which the line will be
+     * drawn decimated. If there are more samples than this per pixel column of
+     * the axes box, all samples of one column are collapsed to a vertical line
+     * from the least to the largest value. Use Float.POSITIVE_INFINITY to
+     * always draw each segment.
+     *
+     * @param decimationThreshold samples per pixel column, default is 2.
+     */
+    public void setDecimationThreshold(float decimationThreshold) {
+        this.decimationThreshold = decimationThreshold;
+        appearanceVersion++;
+    }
+
+    /**
+     * Returns whether a level of detail summary is used to draw this line.
+     *
+     * @return true if enabled
+     */
+    public boolean isLevelOfDetail() {
+        return levelOfDetail;
+    }
+
+    /**
+     * Enables drawing this line from a multi-resolution summary of its data.
+     * The summary holds the first, least, largest and last value of blocks of
+     * consecutive points with different block sizes. When zoomed out, the
+     * line is then drawn from the blocks instead of reading all points, which
+     * makes drawing take about the same time for any number of points.
+     *
+     * <p>
+     * The summary is built in the background after the data was set and is
+     * used as soon as it is available. Values reported with dataChanged or
+     * dataAppended are updated in the summary directly. It is only used if
+     * the x values are sorted, and not for ring buffers or for external data
+     * sources which do not report their changes. The summary needs about 1.5
+     * bytes of memory per point.
+     *
+     * @param levelOfDetail true to enable, default is false.
+     */
+    public synchronized void setLevelOfDetail(boolean levelOfDetail) {
+        this.levelOfDetail = levelOfDetail;
+        if (!levelOfDetail) {
+            invalidateLevelOfDetail(); // release memory
+            publishPaintData();
+        }
+        requestLevelOfDetail();
     }
 
     /**
@@ -292,66 +1247,385 @@ public class Line {
         return (YAxisRuler) yaxis;
     }
 
-    private synchronized void updateXMinProperty() {
-        boolean xDataFinite;
-        xMin = Float.MAX_VALUE;
-        for (int idx = 0; idx < xdata.length; idx++) {
-            xDataFinite = Double.isFinite(xdata[idx]);
-            if (xdata[idx] < xMin && xDataFinite) {
-                xMin = xdata[idx];
-            }
+    /**
+     * Returns a number which changes each time the data or the settings of the
+     * line are modified, so the line would be drawn differently. Changes of
+     * external data sources which do not report them can not be detected, see
+     * hasVolatileData. The number is larger than all versions of lines and
+     * axes which were taken before the modification, so the largest version
+     * of several lines also changes with each modification of one of them.
+     *
+     * @return version number
+     */
+    synchronized long getPaintVersion() {
+        RingBufferDataSource buffer = ringBuffer;
+        long bufferModCount = buffer == null ? -1 : buffer.getModCount();
+        if (dataVersion != paintDataVersion
+                || appearanceVersion != paintAppearanceVersion
+                || buffer != paintRingBuffer
+                || bufferModCount != paintRingBufferModCount) {
+            paintDataVersion = dataVersion;
+            paintAppearanceVersion = appearanceVersion;
+            paintRingBuffer = buffer;
+            paintRingBufferModCount = bufferModCount;
+            paintVersion = nextPaintVersion();
         }
+        return paintVersion;
     }
 
-    private synchronized void updateXMaxProperty() {
-        boolean xDataFinite;
-        xMax = Float.MIN_VALUE;
-        for (int idx = 0; idx < xdata.length; idx++) {
-            xDataFinite = Double.isFinite(xdata[idx]);
-            if (xdata[idx] > xMax && xDataFinite) {
-                xMax = xdata[idx];
+    /**
+     * Returns a new paint version which is larger than all paint versions
+     * given before.
+     *
+     * @return version number
+     */
+    static long nextPaintVersion() {
+        return PAINT_VERSIONS.incrementAndGet();
+    }
+
+    /**
+     * Number of points which were passed to drawPolyline with the last paint.
+     * Points which continue a polyline that was split are counted twice.
+     *
+     * @return number of points
+     */
+    long getRenderedPoints() {
+        return renderedPoints;
+    }
+
+    /**
+     * Number of values which were not drawn as a point with the last paint,
+     * as they were outside of the x limits or decimated.
+     *
+     * @return number of values
+     */
+    long getSkippedPoints() {
+        return Math.max(paintedLength - renderedPoints, 0);
+    }
+
+    /**
+     * Returns whether the line uses an external data source which does not
+     * report its changes, so the data has to be assumed to be modified at any
+     * time.
+     *
+     * @return true if changes can not be detected
+     */
+    boolean hasVolatileData() {
+        return paintData.volatileData;
+    }
+
+    /**
+     * Marks the data as changed if an external data source is used and its
+     * producer does not report changes, as there is no way to know if the
+     * external arrays were modified. Called before
+     * autoscaling to make sure the properties derived from the data are
+     * recalculated once. Painting checks the data itself.
+     */
+    void invalidateExternalData() {
+        if (externalDataSource && !changeNotifications) {
+            dataVersion++;
+        }
+    }
+
+    /**
+     * Drops the level of detail summary after the data was replaced. A new
+     * one will be built on the next paint.
+     */
+    private synchronized void invalidateLevelOfDetail() {
+        detail = null;
+        detailGeneration++;
+        detailChangedFrom = Integer.MAX_VALUE;
+        detailChangedTo = -1;
+    }
+
+    /**
+     * Updates the level of detail summary for a changed range of values, or
+     * remembers the range if the summary is currently built. Called with the
+     * lock of this line held.
+     */
+    private void updateLevelOfDetail(int from, int to) {
+        if (detail != null) {
+            detail.update(source, from, to);
+        } else if (detailBuilding) {
+            detailChangedFrom = Math.min(detailChangedFrom, from);
+            detailChangedTo = Math.max(detailChangedTo, to);
+        }
+    }
+
+    /**
+     * Starts building the level of detail summary if it is enabled and there
+     * is none for the current data. Called by the producers with the lock of
+     * this line held, so painting never has to wait for it.
+     */
+    private void requestLevelOfDetail() {
+        if (levelOfDetail && detail == null) {
+            buildLevelOfDetail();
+        }
+    }
+
+    /**
+     * Starts building the level of detail summary in the background if the
+     * data allows it and no build is running.
+     */
+    private synchronized void buildLevelOfDetail() {
+        if (detailBuilding || source == null || ringBuffer != null
+                || (externalDataSource && !changeNotifications)) {
+            return;
+        }
+        detailBuilding = true;
+        detailChangedFrom = Integer.MAX_VALUE;
+        detailChangedTo = -1;
+        final int generation = detailGeneration;
+        final LineDataSource summarized = source;
+        final int summarizedLength = length;
+        LevelOfDetail.execute(() -> {
+            LevelOfDetail built = new LevelOfDetail();
+            built.update(summarized, 0, summarizedLength);
+            synchronized (Line.this) {
+                detailBuilding = false;
+                if (generation != detailGeneration || !levelOfDetail) {
+                    // Data was replaced in the meantime, start again for the
+                    // current data.
+                    requestLevelOfDetail();
+                    return;
+                }
+                // Include what was reported while building.
+                built.update(summarized, detailChangedFrom, detailChangedTo);
+                built.update(summarized, summarizedLength, length);
+                detail = built;
+                publishPaintData();
             }
+        });
+    }
+
+    /**
+     * Makes the current data and its properties available to painting.
+     */
+    private void publishPaintData() {
+        paintData = new PaintData(source, length, monotonicX,
+                statisticsVersion == dataVersion,
+                externalDataSource && !changeNotifications, detail);
+    }
+
+    /**
+     * Returns whether a paint in progress draws the values of the given
+     * source.
+     */
+    private boolean isPainting(LineDataSource values) {
+        PaintData data = painting;
+        return data != null && data.source == values;
+    }
+
+    /**
+     * Recalculates the properties derived from the data if the data has
+     * changed since they were calculated.
+     */
+    private void validateStatistics() {
+        if (ringBuffer != null) {
+            updateRingBufferProperties();
+            return;
+        }
+        if (statisticsVersion != dataVersion) {
+            updateStatistics();
         }
     }
 
-    private synchronized void updateYMinProperty() {
-        boolean yDataFinite;
-        yMin = Float.MAX_VALUE;
-        for (int idx = 0; idx < ydata.length; idx++) {
-            yDataFinite = Double.isFinite(ydata[idx]);
-            if (ydata[idx] < yMin && yDataFinite) {
-                yMin = ydata[idx];
+    /**
+     * Takes the current position, size and the properties derived from the
+     * data from the ring buffer, which keeps them up to date itself. The
+     * buffer is read again with the line locked, as the data source might
+     * have been replaced since it was checked.
+     */
+    private synchronized void updateRingBufferProperties() {
+        RingBufferDataSource buffer = ringBuffer;
+        if (buffer == null) {
+            if (statisticsVersion != dataVersion) {
+                updateStatistics();
             }
+            return;
+        }
+        synchronized (buffer) {
+            length = buffer.size();
+            xMin = buffer.getXMin();
+            xMax = buffer.getXMax();
+            yMin = buffer.getYMin();
+            yMax = buffer.getYMax();
+            noXData = !buffer.hasXValues();
+            noYData = !buffer.hasYValues();
+            monotonicX = buffer.isMonotonicX();
+            statisticsVersion = dataVersion;
+            publishPaintData();
         }
     }
 
-    private synchronized void updateYMaxProperty() {
-        boolean yDataFinite;
+    /**
+     * Calculates min and max values, whether there are any finite values at
+     * all and whether the x values are sorted in one single pass through the
+     * data arrays.
+     */
+    private synchronized void updateStatistics() {
+        int version = dataVersion;
+        xMin = Float.MAX_VALUE;
+        xMax = Float.MIN_VALUE;
+        yMin = Float.MAX_VALUE;
         yMax = Float.MIN_VALUE;
-        for (int idx = 0; idx < ydata.length; idx++) {
-            yDataFinite = Double.isFinite(ydata[idx]);
-            if (ydata[idx] > yMax && yDataFinite) {
-                yMax = ydata[idx];
-            }
+        xMinIndex = -1;
+        xMaxIndex = -1;
+        yMinIndex = -1;
+        yMaxIndex = -1;
+        monotonicX = length > 0;
+        updateStatistics(0, length);
+        if (length == 1 && Double.isNaN(source.getX(0))) {
+            monotonicX = false;
+        }
+        noXData = xMinIndex < 0;
+        noYData = yMinIndex < 0;
+        if (noXData && !externalDataSource) {
+            xMin = 0;
+            xMax = 0;
         }
+        if (noYData && !externalDataSource) {
+            yMin = 0;
+            yMax = 0;
+        }
+        statisticsVersion = version;
+        publishPaintData();
     }
 
-    private synchronized void updateNoXDataProperty() {
-        noXData = true;
-        for (int idx = 0; idx < xdata.length; idx++) {
-            if (Double.isFinite(xdata[idx])) {
-                noXData = false;
-                return;
+    /**
+     * Includes the values from the given range to the properties which are
+     * valid for the current data version and increments the version so they
+     * stay valid.
+     */
+    private void mergeStatistics(int from, int to) {
+        if (from > 0 && from < to
+                && !(source.getX(from - 1) <= source.getX(from))) {
+            monotonicX = false;
+        }
+        if (to < length && from < to
+                && !(source.getX(to - 1) <= source.getX(to))) {
+            monotonicX = false;
+        }
+        updateStatistics(from, to);
+        noXData = xMinIndex < 0;
+        noYData = yMinIndex < 0;
+        dataVersion++;
+        statisticsVersion = dataVersion;
+        publishPaintData();
+    }
+
+    /**
+     * Includes the values from the given range to the min and max values and
+     * checks if the x values are sorted within this range.
+     */
+    private void updateStatistics(int from, int to) {
+        if (xStatisticsChunk == null) {
+            xStatisticsChunk = new double[CHUNK_SIZE];
+            yStatisticsChunk = new double[CHUNK_SIZE];
+        }
+        double previousX = 0;
+        float x, y;
+        int chunkLength, index;
+        for (int chunk = from; chunk < to; chunk += CHUNK_SIZE) {
+            chunkLength = Math.min(CHUNK_SIZE, to - chunk);
+            source.getX(chunk, chunk + chunkLength, xStatisticsChunk, 0);
+            source.getY(chunk, chunk + chunkLength, yStatisticsChunk, 0);
+            for (int idx = 0; idx < chunkLength; idx++) {
+                index = chunk + idx;
+                x = (float) xStatisticsChunk[idx];
+                y = (float) yStatisticsChunk[idx];
+                if (Float.isFinite(x)) {
+                    if (x < xMin || xMinIndex < 0) {
+                        xMin = x;
+                        xMinIndex = index;
+                    }
+                    if (x > xMax || xMaxIndex < 0) {
+                        xMax = x;
+                        xMaxIndex = index;
+                    }
+                }
+                if (Float.isFinite(y)) {
+                    if (y < yMin || yMinIndex < 0) {
+                        yMin = y;
+                        yMinIndex = index;
+                    }
+                    if (y > yMax || yMaxIndex < 0) {
+                        yMax = y;
+                        yMaxIndex = index;
+                    }
+                }
+                // also false for NaN values
+                if (index > from && !(previousX <= xStatisticsChunk[idx])) {
+                    monotonicX = false;
+                }
+                previousX = xStatisticsChunk[idx];
             }
         }
     }
-    
-    private synchronized void updateNoYDataProperty() {
-        noYData = true;
-        for (int idx = 0; idx < ydata.length; idx++) {
-            if (Double.isFinite(ydata[idx])) {
-                noYData = false;
-                return;
+
+    /**
+     * The data source and the properties of its values which painting uses.
+     * If scanned is false, monotonicX was not calculated for the data yet.
+     * Volatile data comes from an external data source which does not report
+     * its changes, so monotonicX has to be checked on each paint.
+     */
+    private static final class PaintData {
+
+        final LineDataSource source;
+        final int length;
+        final boolean monotonicX;
+        final boolean scanned;
+        final boolean volatileData;
+        final LevelOfDetail detail;
+
+        PaintData(LineDataSource source, int length, boolean monotonicX,
+                boolean scanned, boolean volatileData, LevelOfDetail detail) {
+            this.source = source;
+            this.length = length;
+            this.monotonicX = monotonicX;
+            this.scanned = scanned;
+            this.volatileData = volatileData;
+            this.detail = detail;
+        }
+    }
+
+    /**
+     * Data of a line and the transforms of its rulers, taken at one point in
+     * time for painting the line later.
+     */
+    static final class Snapshot {
+
+        private final Line line;
+        private final PaintData data;
+        private final AxisTransform x, y;
+
+        private Snapshot(Line line, PaintData data, AxisTransform x,
+                AxisTransform y) {
+            this.line = line;
+            this.data = data;
+            this.x = x;
+            this.y = y;
+        }
+
+        Line getLine() {
+            return line;
+        }
+
+        /**
+         * Paints the line as it was when the snapshot was taken.
+         *
+         * @param g Graphics object for drawing.
+         */
+        void paint(Graphics g) {
+            line.paint(g, data, x, y);
+        }
+
+        /**
+         * Ends marking the data as painted without painting it.
+         */
+        void release() {
+            if (line.painting == data) {
+                line.painting = null;
             }
         }
     }
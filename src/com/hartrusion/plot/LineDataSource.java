@@ -0,0 +1,93 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 Viktor Alexander Hartung.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.hartrusion.plot;
+
+/**
+ * Provides the x and y values of a line. The line reads the values through
+ * this interface each time it gets painted or autoscaled, so the values can
+ * be stored wherever they are produced, without copying them to the line.
+ *
+ * <p>
+ * Values are handed out as double so sources holding doubles do not lose any
+ * precision. The bulk methods are used for painting and autoscaling and
+ * should copy the values into the given arrays without allocating anything.
+ *
+ * @author Viktor Alexander Hartung
+ */
+public interface LineDataSource {
+
+    /**
+     * Number of x and y value pairs that can be read from this source.
+     *
+     * @return number of values
+     */
+    public int size();
+
+    /**
+     * Returns a single x value.
+     *
+     * @param index 0..size()-1
+     * @return x value
+     */
+    public double getX(int index);
+
+    /**
+     * Returns a single y value.
+     *
+     * @param index 0..size()-1
+     * @return y value
+     */
+    public double getY(int index);
+
+    /**
+     * Copies a range of x values into the given array.
+     *
+     * @param from Index of the first value to copy
+     * @param to Index after the last value to copy
+     * @param dst Array which receives the values
+     * @param offset Index in dst where the first value is written to
+     */
+    public void getX(int from, int to, double[] dst, int offset);
+
+    /**
+     * Copies a range of y values into the given array.
+     *
+     * @param from Index of the first value to copy
+     * @param to Index after the last value to copy
+     * @param dst Array which receives the values
+     * @param offset Index in dst where the first value is written to
+     */
+    public void getY(int from, int to, double[] dst, int offset);
+
+    /**
+     * Tells whether the values of this source will never change. A line using
+     * such a source calculates min and max values only once instead of on
+     * each paint and autoscale.
+     *
+     * @return true if the values are constant, default is false.
+     */
+    public default boolean hasConstantValues() {
+        return false;
+    }
+}
@@ -24,7 +24,9 @@
 package com.hartrusion.plot;
 
 import java.awt.Color;
+import java.awt.FontMetrics;
 import java.awt.Graphics;
+import java.awt.Rectangle;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -89,7 +91,7 @@ public class MYAxes extends YYAxes {
     }
 
     @Override
-    public void addLine(int target, Line l) {
+    public synchronized void addLine(int target, Line l) {
         if (target <= 2) {
             super.addLine(target, l);
             return;
@@ -97,6 +99,7 @@ public class MYAxes extends YYAxes {
         // Check if the axes nr does exist, if not, create all of them
         checkAndCreateAxes(target);
         lines.add(l);
+        linesModCount++;
         if (l.getLineColor() == null) {
             switch (target) {
                 case 3:
@@ -113,11 +116,11 @@ public class MYAxes extends YYAxes {
             }
         }
         l.initComponent(xaxis, myaxes.get(target - 3));
-        VisualizeData.setCurrentAxes(this);
+        makeCurrent();
     }
 
     @Override
-    public void yLim(int target, float y1, float y2) {
+    public synchronized void yLim(int target, float y1, float y2) {
         if (target <= 2) {
             super.yLim(target, y1, y2);
             return;
@@ -128,7 +131,7 @@ public class MYAxes extends YYAxes {
     }
 
     @Override
-    public void ylabel(int target, String s) {
+    public synchronized void ylabel(int target, String s) {
         if (target <= 2) {
             super.ylabel(target, s);
             return;
@@ -138,20 +141,20 @@ public class MYAxes extends YYAxes {
     }
 
     @Override
-    public void autoY() {
+    public synchronized void autoY() {
         super.autoY();
 
     }
 
     @Override
-    public void setPosition(float[] position) {
+    public synchronized void setPosition(float[] position) {
         // Redirect this to other variable:
         System.arraycopy(position, 0, this.outerPosition, 0, position.length);
         setSuperPosition();
     }
 
     @Override
-    public void setPosition(float x, float y, float width, float height) {
+    public synchronized void setPosition(float x, float y, float width, float height) {
         // Redirect this to other variable
         outerPosition[0] = x;
         outerPosition[1] = y;
@@ -174,36 +177,73 @@ public class MYAxes extends YYAxes {
     }
 
     @Override
-    public void awtPaintComponents(Graphics g,
-            float parentWidth, float parentHeight) {
+    protected void updateLayout(float parentWidth, float parentHeight) {
         setSuperPosition(); // Manipulate the box coordinates first,
-        // and paint all the super stuff afterwards.
-        super.awtPaintComponents(g, parentWidth, parentHeight);
+        // and do all the super stuff afterwards.
+        super.updateLayout(parentWidth, parentHeight);
         // Prepare the additional Y axes by supplying the coordinates.
         for (int idx = 0; idx < myaxes.size(); idx++) {
             // This has to be known to get the correct scaling of the lines
             // that are assigned to the axes.
             myaxes.get(idx).setCoordinates(
                     boxCoordinates[3], boxCoordinates[1]);
-            // Calculate the X position (pixels) where this axes will be 
-            // placed, can only be done after X axes has been drawn.
+            // Calculate the X position (pixels) where this axes will be
+            // placed, can only be done after X axes has been placed.
             myaxes.get(idx).setPlacement(xaxis.getCoordinateLineStart()
                     - (int) (parentWidth * (addYSpacing * (float) (idx + 1))));
+        }
+    }
+
+    @Override
+    protected int getPaintStages() {
+        // The additional rulers are painted above the lines of the primary
+        // and secondary y axis.
+        return super.getPaintStages() + 1;
+    }
+
+    @Override
+    protected void paintDecoration(Graphics g, int stage) {
+        if (stage < super.getPaintStages()) {
+            super.paintDecoration(g, stage);
+            return;
+        }
+        for (int idx = 0; idx < myaxes.size(); idx++) {
             if (myaxes.get(idx).isVisible()) {
                 myaxes.get(idx).awtPaintComponents(g);
             }
         }
-        // Plot all lines assigned to the additional axes
-        for (Line l : lines) {
-            if (!myaxes.contains(l.getYAxis())) {
-                continue; // skip lines from other axes
+    }
+
+    @Override
+    protected void addDecorationBounds(FontMetrics fm, Rectangle bounds) {
+        super.addDecorationBounds(fm, bounds);
+        for (int idx = 0; idx < myaxes.size(); idx++) {
+            if (myaxes.get(idx).isVisible()) {
+                myaxes.get(idx).addBounds(fm, bounds);
             }
-            l.awtPaintComponents(g);
         }
     }
 
     @Override
-    public void applyZoomBox(int startX, int startY, int endX, int endY) {
+    protected int getDecorationModCount() {
+        // The number of axes is added as a new axes starts with a count of 0.
+        int modCount = super.getDecorationModCount() + myaxes.size();
+        for (int idx = 0; idx < myaxes.size(); idx++) {
+            modCount += myaxes.get(idx).getModCount();
+        }
+        return modCount;
+    }
+
+    @Override
+    protected int getPaintStage(Line l) {
+        if (myaxes.contains(l.getYAxis())) {
+            return super.getPaintStages();
+        }
+        return super.getPaintStage(l);
+    }
+
+    @Override
+    public synchronized void applyZoomBox(int startX, int startY, int endX, int endY) {
         super.applyZoomBox(startX, startY, endX, endY);
         float y1, y2, minY, maxY;
         float[] origY;
@@ -220,7 +260,7 @@ public class MYAxes extends YYAxes {
     }
 
     @Override
-    public void applyZoomPoint(int x, int y, float factor) {
+    public synchronized void applyZoomPoint(int x, int y, float factor) {
         super.applyZoomPoint(x, y, factor);
         float valY, rangeY, ratioY, minY, maxY;
         float[] origY;
@@ -240,7 +280,7 @@ public class MYAxes extends YYAxes {
     }
 
     @Override
-    public void applyPan(int dx, int dy) {
+    public synchronized void applyPan(int dx, int dy) {
         super.applyPan(dx, dy);
         float valY1, valY2, valDy, minY, maxY;
         float[] origY;
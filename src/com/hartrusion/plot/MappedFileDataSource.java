@@ -0,0 +1,255 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 Viktor Alexander Hartung.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.hartrusion.plot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Line data source which reads the values directly from a memory mapped binary
+ * file. This allows to display recordings that are much larger than the java
+ * heap, the operating system loads the parts of the file that are needed into
+ * its page cache when painting or autoscaling.
+ *
+ * <p>
+ * The layout of the file is described by the position of the first x and y
+ * value in bytes from the beginning of the file and the distance in bytes from
+ * one value to the next (stride). This covers interleaved files, where x and y
+ * values alternate, as well as files where all x values are followed by all y
+ * values. Use the static methods interleaved and columnar for those two common
+ * layouts.
+ *
+ * <p>
+ * The file content is expected not to change. If it does, the line displaying
+ * it has to be told with Line.dataChanged.
+ *
+ * <p>
+ * As lines address their values with int indices, a file can hold at most
+ * Integer.MAX_VALUE x and y value pairs, which are 16 GB of float or 32 GB of
+ * double values. Larger files are rejected, they have to be split or mapped
+ * in parts with the constructor.
+ *
+ * @author Viktor Alexander Hartung
+ */
+public class MappedFileDataSource implements LineDataSource {
+
+    /**
+     * Type of the values stored in the file.
+     */
+    public enum ElementType {
+        FLOAT(4), DOUBLE(8);
+
+        private final int bytes;
+
+        ElementType(int bytes) {
+            this.bytes = bytes;
+        }
+
+        /**
+         * Size of one value in bytes.
+         *
+         * @return number of bytes
+         */
+        public int getBytes() {
+            return bytes;
+        }
+    }
+
+    /**
+     * Size of the mapped regions. A single mapped buffer can not be larger
+     * than 2 GB, so larger files are mapped in multiple regions.
+     */
+    private static final long REGION_SIZE = 1L << 30;
+
+    /**
+     * The mapped regions of the file. Each one is mapped a few bytes longer
+     * than REGION_SIZE so a value starting at the end of a region can be read
+     * from that region entirely.
+     */
+    private final MappedByteBuffer[] regions;
+
+    private final ElementType type;
+    private final long xOffset, yOffset, stride;
+    private final int size;
+
+    /**
+     * Maps the given file for reading values with the given layout.
+     *
+     * @param file Binary file to read
+     * @param type Type of the x and y values
+     * @param order Byte order of the values
+     * @param xOffset Position of the first x value in bytes
+     * @param yOffset Position of the first y value in bytes
+     * @param stride Distance in bytes between two x or two y values
+     * @param size Number of x and y value pairs
+     * @throws IOException if the file can not be mapped
+     */
+    public MappedFileDataSource(Path file, ElementType type, ByteOrder order,
+            long xOffset, long yOffset, long stride, int size)
+            throws IOException {
+        if (xOffset < 0 || yOffset < 0 || stride < type.getBytes()
+                || size < 0) {
+            throw new IllegalArgumentException("Invalid layout.");
+        }
+        this.type = type;
+        this.xOffset = xOffset;
+        this.yOffset = yOffset;
+        this.stride = stride;
+        this.size = size;
+        try (FileChannel channel = FileChannel.open(
+                file, StandardOpenOption.READ)) {
+            long end = size == 0 ? 0 : Math.max(xOffset, yOffset)
+                    + (size - 1) * stride + type.getBytes();
+            if (end > channel.size()) {
+                throw new IllegalArgumentException(
+                        "Layout exceeds file size.");
+            }
+            regions = new MappedByteBuffer[(int) ((end + REGION_SIZE - 1)
+                    / REGION_SIZE)];
+            long start;
+            for (int idx = 0; idx < regions.length; idx++) {
+                start = idx * REGION_SIZE;
+                regions[idx] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        start, Math.min(REGION_SIZE + 8, end - start));
+                regions[idx].order(order);
+            }
+        } // the mapping stays valid after closing the channel
+    }
+
+    /**
+     * Maps a file which contains x and y values alternating, starting with x
+     * at the beginning of the file.
+     *
+     * @param file Binary file to read
+     * @param type Type of the x and y values
+     * @param order Byte order of the values
+     * @return data source for the file
+     * @throws IOException if the file can not be mapped
+     * @throws IllegalArgumentException if the file holds more than
+     * Integer.MAX_VALUE value pairs
+     */
+    public static MappedFileDataSource interleaved(Path file,
+            ElementType type, ByteOrder order) throws IOException {
+        return new MappedFileDataSource(file, type, order,
+                0, type.getBytes(), 2 * type.getBytes(),
+                pairCount(file, type));
+    }
+
+    /**
+     * Maps a file which contains all x values, followed by all y values.
+     *
+     * @param file Binary file to read
+     * @param type Type of the x and y values
+     * @param order Byte order of the values
+     * @return data source for the file
+     * @throws IOException if the file can not be mapped
+     * @throws IllegalArgumentException if the file holds more than
+     * Integer.MAX_VALUE value pairs
+     */
+    public static MappedFileDataSource columnar(Path file,
+            ElementType type, ByteOrder order) throws IOException {
+        int size = pairCount(file, type);
+        return new MappedFileDataSource(file, type, order,
+                0, (long) size * type.getBytes(), type.getBytes(), size);
+    }
+
+    /**
+     * Number of x and y value pairs which fit into the given file.
+     */
+    private static int pairCount(Path file, ElementType type) {
+        long pairs = file.toFile().length() / (2 * type.getBytes());
+        if (pairs > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("File holds " + pairs
+                    + " value pairs, at most " + Integer.MAX_VALUE
+                    + " are supported.");
+        }
+        return (int) pairs;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean hasConstantValues() {
+        return true;
+    }
+
+    @Override
+    public double getX(int index) {
+        return read(xOffset + index * stride);
+    }
+
+    @Override
+    public double getY(int index) {
+        return read(yOffset + index * stride);
+    }
+
+    @Override
+    public void getX(int from, int to, double[] dst, int offset) {
+        read(xOffset, from, to, dst, offset);
+    }
+
+    @Override
+    public void getY(int from, int to, double[] dst, int offset) {
+        read(yOffset, from, to, dst, offset);
+    }
+
+    private double read(long position) {
+        ByteBuffer region = regions[(int) (position / REGION_SIZE)];
+        int index = (int) (position % REGION_SIZE);
+        if (type == ElementType.FLOAT) {
+            return region.getFloat(index);
+        }
+        return region.getDouble(index);
+    }
+
+    private void read(long first, int from, int to,
+            double[] dst, int offset) {
+        long position = first + from * stride;
+        int regionNumber = (int) (position / REGION_SIZE);
+        ByteBuffer region = regions[regionNumber];
+        long regionStart = regionNumber * REGION_SIZE;
+        for (int idx = from; idx < to; idx++, position += stride) {
+            if (position - regionStart >= REGION_SIZE) {
+                regionNumber = (int) (position / REGION_SIZE);
+                region = regions[regionNumber];
+                regionStart = regionNumber * REGION_SIZE;
+            }
+            if (type == ElementType.FLOAT) {
+                dst[offset++] = region.getFloat(
+                        (int) (position - regionStart));
+            } else {
+                dst[offset++] = region.getDouble(
+                        (int) (position - regionStart));
+            }
+        }
+    }
+}
@@ -0,0 +1,401 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 Viktor Alexander Hartung.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.hartrusion.plot;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+import org.w3c.dom.NodeList;
+
+/**
+ * A figure which is not displayed but rendered into an image, which can then
+ * be written to a file. It does not use any window or the event dispatch
+ * thread, so it can be used to create plots in batch jobs and on servers
+ * without a display, running with java.awt.headless=true.
+ *
+ * <p>
+ * The size of the figure is given in pixels at the default resolution of 96
+ * dpi, which is the size the figure would have on screen. Setting a higher
+ * resolution creates a larger image with the same layout, like printing it.
+ *
+ * <p>
+ * To use it with the static methods of VisualizeData, set an instance as the
+ * current figure before calling plot. Adding lines to the axes of this figure
+ * directly does not make them the current axes of VisualizeData, other than
+ * with displayed figures.
+ *
+ * @author Viktor Alexander Hartung
+ */
+public class OffscreenFigure implements Figure {
+
+    /**
+     * Resolution at which one pixel of the figure size is one image pixel.
+     */
+    public static final int DEFAULT_RESOLUTION = 96;
+
+    private static final String PNG_FORMAT = "javax_imageio_png_1.0";
+    private static final String JPEG_FORMAT = "javax_imageio_jpeg_image_1.0";
+
+    /**
+     * A list containing all axes that are included in this figure.
+     */
+    private final List<Axes> axes = new ArrayList<>();
+
+    /**
+     * Reference to a subplot manager, holding some information about the axes
+     * placements and so on.
+     */
+    private SubPlot subPlot;
+
+    private int width;
+    private int height;
+    private int resolution = DEFAULT_RESOLUTION;
+    private Color background = Color.WHITE;
+
+    /**
+     * Creates a new figure containing a default axes.
+     *
+     * @param width Width in pixels at default resolution
+     * @param height Height in pixels at default resolution
+     */
+    public OffscreenFigure(int width, int height) {
+        setSize(width, height);
+        addAxes(new Axes()); // construct the default axes
+    }
+
+    @Override
+    public void addAxes(Axes a) {
+        a.setCurrentOnAddLine(false);
+        axes.add(a);
+    }
+
+    @Override
+    public Axes getLastAxes() {
+        if (axes.isEmpty()) {
+            return null;
+        }
+        return axes.get(0);
+    }
+
+    @Override
+    public void addSubPlot(SubPlot sp) {
+        Iterator<Axes> axIterator = sp.getAxesIterator();
+        while (axIterator.hasNext()) {
+            axIterator.next().setCurrentOnAddLine(false);
+        }
+        subPlot = sp;
+    }
+
+    @Override
+    public SubPlot getSubPlot() {
+        return subPlot;
+    }
+
+    @Override
+    public void clear() {
+        subPlot = null;
+        axes.clear();
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Sets the size of the figure, which is the size of the rendered image at
+     * default resolution.
+     *
+     * @param width Width in pixels
+     * @param height Height in pixels
+     */
+    public void setSize(int width, int height) {
+        if (width < 1 || height < 1) {
+            throw new IllegalArgumentException("Illegal size.");
+        }
+        this.width = width;
+        this.height = height;
+    }
+
+    public int getResolution() {
+        return resolution;
+    }
+
+    /**
+     * Sets the resolution in dots per inch. The rendered image is scaled by
+     * resolution / 96, lines and text get thicker and larger accordingly. The
+     * resolution is also written to the image files.
+     *
+     * @param resolution dpi
+     */
+    public void setResolution(int resolution) {
+        if (resolution < 1) {
+            throw new IllegalArgumentException("Illegal resolution.");
+        }
+        this.resolution = resolution;
+    }
+
+    public Color getBackground() {
+        return background;
+    }
+
+    public void setBackground(Color background) {
+        this.background = background;
+    }
+
+    /**
+     * Renders the figure with all axes into a new image.
+     *
+     * @return Image with the size of the figure at the set resolution.
+     */
+    public BufferedImage render() {
+        double scale = (double) resolution / DEFAULT_RESOLUTION;
+        BufferedImage img = new BufferedImage(
+                Math.max(1, (int) Math.round(width * scale)),
+                Math.max(1, (int) Math.round(height * scale)),
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = img.createGraphics();
+        try {
+            g2.setColor(background);
+            g2.fillRect(0, 0, img.getWidth(), img.getHeight());
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                    RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.scale(scale, scale);
+            paint(g2);
+        } finally {
+            g2.dispose();
+        }
+        return img;
+    }
+
+    /**
+     * Paints all axes of this figure with the size of the figure onto the
+     * given graphics object. The image and decoration caches of the axes are
+     * disabled, as the figure is usually painted only once, the axes are
+     * painted directly onto the target instead.
+     *
+     * @param g2 Graphics to paint on
+     */
+    public void paint(Graphics2D g2) {
+        for (Axes a : axes) {
+            paint(g2, a);
+        }
+        if (subPlot != null) {
+            Iterator<Axes> axIterator = subPlot.getAxesIterator();
+            while (axIterator.hasNext()) {
+                paint(g2, axIterator.next());
+            }
+        }
+    }
+
+    private void paint(Graphics2D g2, Axes a) {
+        if (a.isImageCached()) {
+            a.setImageCached(false);
+        }
+        if (a.isDecorationCached()) {
+            a.setDecorationCached(false);
+        }
+        a.awtPaintComponents(g2, (float) width - 1, (float) height - 1);
+    }
+
+    /**
+     * Renders the figure and writes it to a file. The format is taken from
+     * the file name extension, for example png or jpg.
+     *
+     * @param file Target file
+     * @throws IOException If writing fails or the format is not supported.
+     */
+    public void write(File file) throws IOException {
+        write(file, getFormatName(file));
+    }
+
+    /**
+     * Renders the figure and writes it to a file in the given format. The
+     * formats svg and pdf are written as vector graphics, all others are
+     * rendered to an image first.
+     *
+     * @param file Target file
+     * @param format Informal format name like png, jpeg, svg or pdf
+     * @throws IOException If writing fails or the format is not supported.
+     */
+    public void write(File file, String format) throws IOException {
+        if (!isVectorFormat(format)) {
+            write(render(), file, format);
+        } else if (format.equalsIgnoreCase("svg")) {
+            writeSvg(new OutputStreamWriter(new FileOutputStream(file),
+                    StandardCharsets.UTF_8));
+        } else {
+            writePdf(new FileOutputStream(file));
+        }
+    }
+
+    /**
+     * Writes the figure as svg document. The size of the document is the
+     * size of the figure in pixels.
+     *
+     * @param out Writer, will be closed after writing.
+     * @throws IOException If writing fails.
+     */
+    public void writeSvg(Writer out) throws IOException {
+        try (SvgGraphics2D g2 = new SvgGraphics2D(out, width, height)) {
+            paintVector(g2);
+        }
+    }
+
+    /**
+     * Writes the figure as single page pdf document. The page has the size
+     * the figure has on screen at the default resolution of 96 dpi.
+     *
+     * @param out Stream, will be closed after writing.
+     * @throws IOException If writing fails.
+     */
+    public void writePdf(OutputStream out) throws IOException {
+        float scale = 72F / DEFAULT_RESOLUTION; // pdf uses points
+        try (PdfGraphics2D g2 = new PdfGraphics2D(out,
+                width * scale, height * scale)) {
+            g2.scale(scale, scale);
+            paintVector(g2);
+        }
+    }
+
+    private void paintVector(Graphics2D g2) {
+        g2.setColor(background);
+        g2.fillRect(0, 0, width, height);
+        paint(g2);
+    }
+
+    /**
+     * Returns true if files of the given format are written as vector
+     * graphics, without rendering an image.
+     */
+    static boolean isVectorFormat(String format) {
+        return format.equalsIgnoreCase("svg")
+                || format.equalsIgnoreCase("pdf");
+    }
+
+    /**
+     * Writes an image which was rendered by this figure to a file. The
+     * resolution of this figure is written to the file.
+     *
+     * @param img Image returned by render
+     * @param file Target file
+     * @param format Informal format name like png or jpeg
+     * @throws IOException If writing fails or the format is not supported.
+     */
+    public void write(BufferedImage img, File file, String format)
+            throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(
+                format);
+        if (!writers.hasNext()) {
+            throw new IOException("No writer for format " + format);
+        }
+        ImageWriter writer = writers.next();
+        if (file.exists() && !file.delete()) {
+            throw new IOException("Can not replace " + file);
+        }
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(file)) {
+            if (out == null) {
+                throw new IOException("Can not write " + file);
+            }
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(img, null,
+                    createMetadata(writer, img)), null);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    /**
+     * Returns the file name extension, which is used as format name.
+     */
+    static String getFormatName(File file) {
+        String name = file.getName();
+        int dot = name.lastIndexOf('.');
+        if (dot < 0) {
+            throw new IllegalArgumentException(
+                    "File name has no extension.");
+        }
+        return name.substring(dot + 1);
+    }
+
+    /**
+     * Creates the image metadata containing the resolution for the png and
+     * jpeg writers. Other writers get their default metadata.
+     */
+    private IIOMetadata createMetadata(ImageWriter writer, BufferedImage img)
+            throws IOException {
+        IIOMetadata metadata = writer.getDefaultImageMetadata(
+                ImageTypeSpecifier.createFromRenderedImage(img), null);
+        if (metadata == null || metadata.isReadOnly()) {
+            return metadata;
+        }
+        String format = metadata.getNativeMetadataFormatName();
+        if (PNG_FORMAT.equals(format)) {
+            String pixelsPerMeter = Integer.toString(
+                    (int) Math.round(resolution / 0.0254));
+            IIOMetadataNode phys = new IIOMetadataNode("pHYs");
+            phys.setAttribute("pixelsPerUnitXAxis", pixelsPerMeter);
+            phys.setAttribute("pixelsPerUnitYAxis", pixelsPerMeter);
+            phys.setAttribute("unitSpecifier", "meter");
+            IIOMetadataNode root = new IIOMetadataNode(PNG_FORMAT);
+            root.appendChild(phys);
+            metadata.mergeTree(PNG_FORMAT, root);
+        } else if (JPEG_FORMAT.equals(format)) {
+            // The default tree already contains the JFIF marker segment,
+            // it only needs the density in dots per inch.
+            IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(
+                    JPEG_FORMAT);
+            NodeList jfif = root.getElementsByTagName("app0JFIF");
+            if (jfif.getLength() > 0) {
+                IIOMetadataNode app0 = (IIOMetadataNode) jfif.item(0);
+                app0.setAttribute("resUnits", "1");
+                app0.setAttribute("Xdensity", Integer.toString(resolution));
+                app0.setAttribute("Ydensity", Integer.toString(resolution));
+                metadata.setFromTree(JPEG_FORMAT, root);
+            }
+        }
+        return metadata;
+    }
+}
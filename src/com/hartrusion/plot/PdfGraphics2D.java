@@ -0,0 +1,640 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 Viktor Alexander Hartung.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.hartrusion.plot;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Rectangle2D;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Graphics which write a single page pdf document. The drawing operations are
+ * compressed and written to the stream as soon as they are drawn, the rest of
+ * the document is written by close. Coordinates are in points of 1/72 inch.
+ *
+ * <p>
+ * Text is written with the standard fonts every pdf reader has, Helvetica,
+ * Times and Courier, so no fonts are embedded. Characters which are not part
+ * of the latin-1 range are written as question marks.
+ *
+ * @author Viktor Alexander Hartung
+ */
+public class PdfGraphics2D extends VectorGraphics2D implements Closeable {
+
+    /**
+     * The output and what was written to it, shared by all graphics created
+     * from the same root.
+     */
+    private final Document document;
+
+    /**
+     * Creates new graphics and writes the beginning of the document.
+     *
+     * @param out Stream for the document, will be closed by close.
+     * @param width Width of the page in points
+     * @param height Height of the page in points
+     */
+    public PdfGraphics2D(OutputStream out, float width, float height) {
+        super((int) Math.ceil(width), (int) Math.ceil(height));
+        if (!(width > 0F && height > 0F)) {
+            throw new IllegalArgumentException("Illegal page size.");
+        }
+        document = new Document(out, width, height);
+    }
+
+    private PdfGraphics2D(PdfGraphics2D other) {
+        super(other);
+        document = other.document;
+    }
+
+    @Override
+    public Graphics create() {
+        return new PdfGraphics2D(this);
+    }
+
+    @Override
+    protected void writePath(PathIterator path, BasicStroke stroke) {
+        StringBuilder sb = document.begin(getDeviceClip());
+        if (stroke == null) {
+            document.setFillColor(getColor());
+        } else {
+            document.setStrokeColor(getColor());
+            document.setStroke(stroke);
+        }
+        int operations = sb.length();
+        if (!appendPath(sb, path)) {
+            // Nothing to draw, only the clip and state are kept.
+            sb.setLength(operations);
+            document.write();
+            return;
+        }
+        if (stroke != null) {
+            sb.append("S\n");
+        } else if (path.getWindingRule() == PathIterator.WIND_EVEN_ODD) {
+            sb.append("f*\n");
+        } else {
+            sb.append("f\n");
+        }
+        document.write();
+    }
+
+    @Override
+    protected void writeText(String text, float x, float y) {
+        StringBuilder sb = document.begin(getDeviceClip());
+        document.setFillColor(getColor());
+        Font font = getFont();
+        // Text space is flipped back as the page is flipped to have the y
+        // axis pointing down like in java.
+        AffineTransform t = new AffineTransform(getDeviceTransform());
+        t.translate(x, y);
+        t.scale(1.0, -1.0);
+        sb.append("BT /").append(document.getFontName(font)).append(' ');
+        appendNumber(sb, font.getSize2D());
+        sb.append(" Tf ");
+        appendMatrix(sb, t);
+        sb.append(" Tm (");
+        for (int idx = 0; idx < text.length(); idx++) {
+            char c = text.charAt(idx);
+            if (c == '(' || c == ')' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < ' ' || (c >= 0x7F && c < 0xA0) || c > 0xFF) {
+                sb.append('?'); // not in the font encoding
+            } else {
+                sb.append(c);
+            }
+        }
+        sb.append(") Tj ET\n");
+        document.write();
+    }
+
+    /**
+     * Finishes the document and closes the stream.
+     *
+     * @throws IOException If writing the document failed at any time.
+     */
+    @Override
+    public void close() throws IOException {
+        document.close();
+    }
+
+    /**
+     * Appends the path operators of a path.
+     *
+     * @return false if the path does not contain any segment.
+     */
+    private static boolean appendPath(StringBuilder sb, PathIterator path) {
+        double[] coords = new double[6];
+        double currentX = 0.0;
+        double currentY = 0.0;
+        double startX = 0.0;
+        double startY = 0.0;
+        boolean empty = true;
+        for (; !path.isDone(); path.next()) {
+            switch (path.currentSegment(coords)) {
+                case PathIterator.SEG_MOVETO:
+                    appendPoint(sb, coords, 0);
+                    sb.append("m\n");
+                    startX = coords[0];
+                    startY = coords[1];
+                    currentX = coords[0];
+                    currentY = coords[1];
+                    break;
+                case PathIterator.SEG_LINETO:
+                    appendPoint(sb, coords, 0);
+                    sb.append("l\n");
+                    currentX = coords[0];
+                    currentY = coords[1];
+                    break;
+                case PathIterator.SEG_QUADTO:
+                    // pdf only knows cubic curves, the control points are
+                    // 2/3 of the way from both ends to the quad control.
+                    appendNumber(sb, currentX
+                            + 2.0 / 3.0 * (coords[0] - currentX));
+                    sb.append(' ');
+                    appendNumber(sb, currentY
+                            + 2.0 / 3.0 * (coords[1] - currentY));
+                    sb.append(' ');
+                    appendNumber(sb, coords[2]
+                            + 2.0 / 3.0 * (coords[0] - coords[2]));
+                    sb.append(' ');
+                    appendNumber(sb, coords[3]
+                            + 2.0 / 3.0 * (coords[1] - coords[3]));
+                    sb.append(' ');
+                    appendPoint(sb, coords, 2);
+                    sb.append("c\n");
+                    currentX = coords[2];
+                    currentY = coords[3];
+                    break;
+                case PathIterator.SEG_CUBICTO:
+                    appendPoint(sb, coords, 0);
+                    appendPoint(sb, coords, 2);
+                    appendPoint(sb, coords, 4);
+                    sb.append("c\n");
+                    currentX = coords[4];
+                    currentY = coords[5];
+                    break;
+                default:
+                    sb.append("h\n");
+                    currentX = startX;
+                    currentY = startY;
+            }
+            empty = false;
+        }
+        return !empty;
+    }
+
+    private static void appendPoint(StringBuilder sb, double[] coords,
+            int offset) {
+        appendNumber(sb, coords[offset]);
+        sb.append(' ');
+        appendNumber(sb, coords[offset + 1]);
+        sb.append(' ');
+    }
+
+    private static void appendMatrix(StringBuilder sb, AffineTransform t) {
+        appendNumber(sb, t.getScaleX());
+        sb.append(' ');
+        appendNumber(sb, t.getShearY());
+        sb.append(' ');
+        appendNumber(sb, t.getShearX());
+        sb.append(' ');
+        appendNumber(sb, t.getScaleY());
+        sb.append(' ');
+        appendNumber(sb, t.getTranslateX());
+        sb.append(' ');
+        appendNumber(sb, t.getTranslateY());
+    }
+
+    private static void appendColor(StringBuilder sb, Color c) {
+        appendNumber(sb, c.getRed() / 255.0);
+        sb.append(' ');
+        appendNumber(sb, c.getGreen() / 255.0);
+        sb.append(' ');
+        appendNumber(sb, c.getBlue() / 255.0);
+    }
+
+    /**
+     * The stream with the state of what was already written to it. Drawing
+     * operations are put together in a buffer and written at once to the
+     * compressed content stream of the page. The graphics state is only set
+     * if it changes, a clip is set by saving the state and restoring it when
+     * the clip changes again.
+     */
+    private static class Document {
+
+        private static final int CATALOG = 1;
+        private static final int PAGES = 2;
+        private static final int PAGE = 3;
+        private static final int CONTENT = 4;
+        private static final int LENGTH = 5;
+
+        private final CountingStream out;
+        private final DeflaterOutputStream content;
+        private final Deflater deflater = new Deflater(
+                Deflater.DEFAULT_COMPRESSION);
+        private final float width;
+        private final float height;
+        private final StringBuilder sb = new StringBuilder();
+        private byte[] bytes = new byte[1024];
+
+        /**
+         * Byte offset of each object in the file, by object number.
+         */
+        private final List<Long> offsets = new ArrayList<>();
+        private long contentStart;
+
+        /**
+         * Resource names of standard fonts and of graphics states with an
+         * alpha value.
+         */
+        private final Map<String, String> fonts = new LinkedHashMap<>();
+        private final Map<Integer, String> alphas = new LinkedHashMap<>();
+
+        private Shape clip;
+        private Color strokeColor;
+        private Color fillColor;
+        private int alpha;
+        private BasicStroke stroke;
+
+        private boolean closed;
+        private IOException error;
+
+        Document(OutputStream out, float width, float height) {
+            this.out = new CountingStream(new BufferedOutputStream(out));
+            content = new DeflaterOutputStream(this.out, deflater);
+            this.width = width;
+            this.height = height;
+            resetState();
+            try {
+                this.out.write(new byte[]{'%', 'P', 'D', 'F', '-', '1', '.',
+                    '4', '\n', '%', (byte) 0xE2, (byte) 0xE3, (byte) 0xCF,
+                    (byte) 0xD3, '\n'});
+                sb.setLength(0);
+                beginObject(CONTENT);
+                sb.append("<< /Length ").append(LENGTH)
+                        .append(" 0 R /Filter /FlateDecode >>\nstream\n");
+                writeTo(this.out);
+                contentStart = this.out.count;
+                // Flip the page so the y axis points down like in java.
+                sb.append("1 0 0 -1 0 ");
+                appendNumber(sb, height);
+                sb.append(" cm\n");
+                writeTo(content);
+            } catch (IOException ex) {
+                error = ex;
+            }
+        }
+
+        /**
+         * Clears the buffer and puts operators to change the clip into it if
+         * the clip has changed.
+         *
+         * @param deviceClip Clip for the following operations
+         * @return Buffer to append operators to.
+         */
+        StringBuilder begin(Shape deviceClip) {
+            sb.setLength(0);
+            if (closed || isSameClip(clip, deviceClip)) {
+                return sb;
+            }
+            if (clip != null) {
+                sb.append("Q\n"); // this also restores colors and stroke
+                resetState();
+            }
+            clip = deviceClip;
+            if (clip != null) {
+                PathIterator path = clip.getPathIterator(null);
+                sb.append("q\n");
+                appendPath(sb, path);
+                sb.append(path.getWindingRule() == PathIterator.WIND_EVEN_ODD
+                        ? "W* n\n" : "W n\n");
+            }
+            return sb;
+        }
+
+        private void resetState() {
+            strokeColor = Color.BLACK;
+            fillColor = Color.BLACK;
+            alpha = 255;
+            stroke = new BasicStroke(1F, BasicStroke.CAP_BUTT,
+                    BasicStroke.JOIN_MITER, 10F);
+        }
+
+        void setStrokeColor(Color c) {
+            setAlpha(c.getAlpha());
+            if ((c.getRGB() & 0xFFFFFF) != (strokeColor.getRGB() & 0xFFFFFF)) {
+                appendColor(sb, c);
+                sb.append(" RG\n");
+                strokeColor = c;
+            }
+        }
+
+        void setFillColor(Color c) {
+            setAlpha(c.getAlpha());
+            if ((c.getRGB() & 0xFFFFFF) != (fillColor.getRGB() & 0xFFFFFF)) {
+                appendColor(sb, c);
+                sb.append(" rg\n");
+                fillColor = c;
+            }
+        }
+
+        private void setAlpha(int a) {
+            if (a != alpha) {
+                String name = alphas.get(a);
+                if (name == null) {
+                    name = "GS" + (alphas.size() + 1);
+                    alphas.put(a, name);
+                }
+                sb.append('/').append(name).append(" gs\n");
+                alpha = a;
+            }
+        }
+
+        void setStroke(BasicStroke s) {
+            if (s.getLineWidth() != stroke.getLineWidth()) {
+                appendNumber(sb, s.getLineWidth());
+                sb.append(" w\n");
+            }
+            // Java and pdf use the same numbers for caps and joins.
+            if (s.getEndCap() != stroke.getEndCap()) {
+                sb.append(s.getEndCap()).append(" J\n");
+            }
+            if (s.getLineJoin() != stroke.getLineJoin()) {
+                sb.append(s.getLineJoin()).append(" j\n");
+            }
+            if (s.getMiterLimit() != stroke.getMiterLimit()) {
+                appendNumber(sb, s.getMiterLimit());
+                sb.append(" M\n");
+            }
+            if (!Arrays.equals(s.getDashArray(), stroke.getDashArray())
+                    || s.getDashPhase() != stroke.getDashPhase()) {
+                sb.append('[');
+                float[] dash = s.getDashArray();
+                if (dash != null) {
+                    for (int idx = 0; idx < dash.length; idx++) {
+                        if (idx > 0) {
+                            sb.append(' ');
+                        }
+                        appendNumber(sb, dash[idx]);
+                    }
+                }
+                sb.append("] ");
+                appendNumber(sb, s.getDashPhase());
+                sb.append(" d\n");
+            }
+            stroke = s;
+        }
+
+        /**
+         * Returns the resource name of the standard font which is the most
+         * similar to the given font.
+         */
+        String getFontName(Font font) {
+            String base;
+            switch (font.getFamily()) {
+                case Font.SERIF:
+                    base = font.isBold()
+                            ? (font.isItalic() ? "Times-BoldItalic"
+                            : "Times-Bold")
+                            : (font.isItalic() ? "Times-Italic"
+                            : "Times-Roman");
+                    break;
+                case Font.MONOSPACED:
+                case Font.DIALOG_INPUT:
+                    base = "Courier" + getStyleSuffix(font, "Oblique");
+                    break;
+                default:
+                    base = "Helvetica" + getStyleSuffix(font, "Oblique");
+            }
+            String name = fonts.get(base);
+            if (name == null) {
+                name = "F" + (fonts.size() + 1);
+                fonts.put(base, name);
+            }
+            return name;
+        }
+
+        private static String getStyleSuffix(Font font, String italic) {
+            if (font.isBold()) {
+                return font.isItalic() ? "-Bold" + italic : "-Bold";
+            }
+            return font.isItalic() ? "-" + italic : "";
+        }
+
+        /**
+         * Writes the buffer to the content stream. The first exception is
+         * kept until the document gets closed, as it can not be thrown from
+         * the drawing methods.
+         */
+        void write() {
+            if (closed || error != null || sb.length() == 0) {
+                return;
+            }
+            try {
+                writeTo(content);
+            } catch (IOException ex) {
+                error = ex;
+            }
+        }
+
+        void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            begin(null); // restore the state if clipped
+            write();
+            closed = true;
+            try {
+                if (error == null) {
+                    writeTrailer();
+                }
+            } catch (IOException ex) {
+                error = ex;
+            } finally {
+                deflater.end();
+                try {
+                    out.close();
+                } catch (IOException ex) {
+                    if (error == null) {
+                        error = ex;
+                    }
+                }
+            }
+            if (error != null) {
+                throw error;
+            }
+        }
+
+        /**
+         * Writes everything after the content stream, which are the objects
+         * describing the page and the cross reference table.
+         */
+        private void writeTrailer() throws IOException {
+            content.finish();
+            long length = out.count - contentStart;
+            sb.setLength(0);
+            sb.append("\nendstream\nendobj\n");
+            beginObject(LENGTH);
+            sb.append(length).append("\nendobj\n");
+            writeTo(out);
+
+            // Fonts and graphics states get the object numbers after the
+            // fixed objects, in the order they were used.
+            StringBuilder resources = new StringBuilder("/Font <<");
+            int number = LENGTH;
+            for (Map.Entry<String, String> font : fonts.entrySet()) {
+                number++;
+                beginObject(number);
+                sb.append("<< /Type /Font /Subtype /Type1 /BaseFont /")
+                        .append(font.getKey())
+                        .append(" /Encoding /WinAnsiEncoding >>\nendobj\n");
+                writeTo(out);
+                resources.append(" /").append(font.getValue()).append(' ')
+                        .append(number).append(" 0 R");
+            }
+            resources.append(" >> /ExtGState <<");
+            for (Map.Entry<Integer, String> a : alphas.entrySet()) {
+                number++;
+                beginObject(number);
+                sb.append("<< /CA ");
+                appendNumber(sb, a.getKey() / 255.0);
+                sb.append(" /ca ");
+                appendNumber(sb, a.getKey() / 255.0);
+                sb.append(" >>\nendobj\n");
+                writeTo(out);
+                resources.append(" /").append(a.getValue()).append(' ')
+                        .append(number).append(" 0 R");
+            }
+            resources.append(" >>");
+
+            beginObject(PAGE);
+            sb.append("<< /Type /Page /Parent ").append(PAGES)
+                    .append(" 0 R /MediaBox [0 0 ");
+            appendNumber(sb, width);
+            sb.append(' ');
+            appendNumber(sb, height);
+            sb.append("] /Contents ").append(CONTENT)
+                    .append(" 0 R /Resources << ").append(resources)
+                    .append(" >> >>\nendobj\n");
+            beginObject(PAGES);
+            sb.append("<< /Type /Pages /Kids [").append(PAGE)
+                    .append(" 0 R] /Count 1 >>\nendobj\n");
+            beginObject(CATALOG);
+            sb.append("<< /Type /Catalog /Pages ").append(PAGES)
+                    .append(" 0 R >>\nendobj\n");
+            writeTo(out);
+
+            long xref = out.count;
+            sb.append("xref\n0 ").append(offsets.size()).append('\n')
+                    .append("0000000000 65535 f \n");
+            for (int idx = 1; idx < offsets.size(); idx++) {
+                String offset = Long.toString(offsets.get(idx));
+                for (int pad = offset.length(); pad < 10; pad++) {
+                    sb.append('0');
+                }
+                sb.append(offset).append(" 00000 n \n");
+            }
+            sb.append("trailer\n<< /Size ").append(offsets.size())
+                    .append(" /Root ").append(CATALOG)
+                    .append(" 0 R >>\nstartxref\n").append(xref)
+                    .append("\n%%EOF\n");
+            writeTo(out);
+        }
+
+        /**
+         * Writes the buffer and records the offset of the object which
+         * starts at the end of it.
+         */
+        private void beginObject(int number) throws IOException {
+            writeTo(out);
+            while (offsets.size() <= number) {
+                offsets.add(0L);
+            }
+            offsets.set(number, out.count);
+            sb.append(number).append(" 0 obj\n");
+        }
+
+        /**
+         * Writes the buffer as latin-1 bytes and clears it.
+         */
+        private void writeTo(OutputStream stream) throws IOException {
+            int length = sb.length();
+            if (bytes.length < length) {
+                bytes = new byte[Math.max(length, 2 * bytes.length)];
+            }
+            for (int idx = 0; idx < length; idx++) {
+                bytes[idx] = (byte) sb.charAt(idx);
+            }
+            stream.write(bytes, 0, length);
+            sb.setLength(0);
+        }
+
+        private static boolean isSameClip(Shape a, Shape b) {
+            // Clips that are not rectangles are only the same if they are
+            // not changed, they are kept as the same instance then.
+            return a == b || (a instanceof Rectangle2D && a.equals(b));
+        }
+    }
+
+    /**
+     * Counts the bytes written, which is needed for the cross reference
+     * table and the length of the content stream.
+     */
+    private static class CountingStream extends FilterOutputStream {
+
+        private long count;
+
+        CountingStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 Viktor Alexander Hartung.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.hartrusion.plot;
+
+/**
+ * Snapshot of the render statistics of a figure at one point in time. The
+ * values are calculated from the most recent frames, so they describe the
+ * current rendering load rather than the average since the figure was
+ * created. All times are in milliseconds.
+ *
+ * @author Viktor Alexander Hartung
+ */
+public final class RenderMetrics {
+
+    private final int frames;
+    private final double framesPerSecond;
+    private final double frameTimeMedian;
+    private final double frameTime95;
+    private final double frameTime99;
+    private final double frameTimeMax;
+    private final long repaintRequests;
+    private final long paints;
+    private final double pointsPerFrame;
+    private final double decimationRatio;
+    private final double[] axesDecimationRatios;
+
+    RenderMetrics(int frames, double framesPerSecond,
+            double frameTimeMedian, double frameTime95, double frameTime99,
+            double frameTimeMax, long repaintRequests, long paints,
+            double pointsPerFrame, double decimationRatio,
+            double[] axesDecimationRatios) {
+        this.frames = frames;
+        this.framesPerSecond = framesPerSecond;
+        this.frameTimeMedian = frameTimeMedian;
+        this.frameTime95 = frameTime95;
+        this.frameTime99 = frameTime99;
+        this.frameTimeMax = frameTimeMax;
+        this.repaintRequests = repaintRequests;
+        this.paints = paints;
+        this.pointsPerFrame = pointsPerFrame;
+        this.decimationRatio = decimationRatio;
+        this.axesDecimationRatios = axesDecimationRatios;
+    }
+
+    /**
+     * Number of recent frames the times, points and ratios are calculated
+     * from.
+     *
+     * @return number of frames
+     */
+    public int getFrames() {
+        return frames;
+    }
+
+    /**
+     * Paints per second within the last second before the most recent paint.
+     * The value is not decreased while nothing is painted.
+     *
+     * @return frames per second
+     */
+    public double getFramesPerSecond() {
+        return framesPerSecond;
+    }
+
+    public double getFrameTimeMedian() {
+        return frameTimeMedian;
+    }
+
+    public double getFrameTime95thPercentile() {
+        return frameTime95;
+    }
+
+    public double getFrameTime99thPercentile() {
+        return frameTime99;
+    }
+
+    public double getFrameTimeMax() {
+        return frameTimeMax;
+    }
+
+    /**
+     * Number of calls to repaint since creation or reset. Swing merges
+     * requests that arrive before the component is painted, so if this is
+     * much larger than the number of paints, changes are reported faster than
+     * they can be displayed.
+     *
+     * @return number of repaint requests
+     */
+    public long getRepaintRequests() {
+        return repaintRequests;
+    }
+
+    /**
+     * Number of paints since creation or reset.
+     *
+     * @return number of paints
+     */
+    public long getPaints() {
+        return paints;
+    }
+
+    /**
+     * Average number of line points drawn per frame. Frames which only drew
+     * images of previous paints count with zero points.
+     *
+     * @return points per frame
+     */
+    public double getPointsPerFrame() {
+        return pointsPerFrame;
+    }
+
+    /**
+     * Number of line values per drawn point over the recent frames. 1 means
+     * that each value was drawn, larger values mean that values were outside
+     * of the x limits or merged by level of detail or decimation. 0 if
+     * there were no values.
+     *
+     * @return values per drawn point
+     */
+    public double getDecimationRatio() {
+        return decimationRatio;
+    }
+
+    /**
+     * Decimation ratio of each axes of the figure, from the last paint which
+     * drew its lines. The axes are in the order of painting, which is the
+     * single axes first and then the axes of the subplot.
+     *
+     * @return array with one ratio per axes
+     */
+    public double[] getAxesDecimationRatios() {
+        return axesDecimationRatios.clone();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.1f fps, frame %.2f / %.2f / %.2f / %.2f ms"
+                + " (median/95%%/99%%/max), %d repaints requested,"
+                + " %d painted, %.0f points per frame, decimation %.1f:1",
+                framesPerSecond, frameTimeMedian, frameTime95, frameTime99,
+                frameTimeMax, repaintRequests, paints, pointsPerFrame,
+                decimationRatio);
+    }
+}
@@ -0,0 +1,311 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 Viktor Alexander Hartung.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.hartrusion.plot;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+/**
+ * Collects the duration and the drawn points of the recent paints of a
+ * figure, together with the number of repaint requests. The figure records
+ * each paint, reading is possible from any thread, either as a snapshot with
+ * getMetrics or through the management interface, which can be registered at
+ * the platform MBean server.
+ *
+ * <p>
+ * Recording a frame does not create any objects, so the statistics can stay
+ * enabled all the time.
+ *
+ * @author Viktor Alexander Hartung
+ */
+public class RenderStatistics implements RenderStatisticsMXBean {
+
+    /**
+     * Number of recent frames which are kept for calculating the metrics.
+     */
+    private static final int SAMPLES = 256;
+
+    private static final long SECOND_NANOS = 1_000_000_000L;
+
+    /**
+     * Ring buffers holding the start time, the duration and the drawn and
+     * skipped points of the recent frames, guarded by this object.
+     */
+    private final long[] frameStart = new long[SAMPLES];
+    private final long[] frameNanos = new long[SAMPLES];
+    private final long[] framePoints = new long[SAMPLES];
+    private final long[] frameSkipped = new long[SAMPLES];
+    private int frameCount;
+    private int nextFrame;
+    private long paints;
+
+    /**
+     * Drawn and skipped points of each axes from its last paint which drew
+     * lines, guarded by this object.
+     */
+    private long[] axesPoints = new long[0];
+    private long[] axesSkipped = new long[0];
+    private int axesCount;
+
+    private final AtomicLong repaintRequests = new AtomicLong();
+
+    private ObjectName objectName;
+
+    /**
+     * Counts a request to repaint the figure or a part of it. Can be called
+     * from any thread.
+     */
+    void repaintRequested() {
+        repaintRequests.incrementAndGet();
+    }
+
+    /**
+     * Prepares recording the axes of a new frame.
+     *
+     * @param axesCount Number of axes of the figure
+     */
+    synchronized void frameStarted(int axesCount) {
+        if (axesPoints.length < axesCount) {
+            axesPoints = Arrays.copyOf(axesPoints, axesCount);
+            axesSkipped = Arrays.copyOf(axesSkipped, axesCount);
+        }
+        this.axesCount = axesCount;
+    }
+
+    /**
+     * Records the points of an axes which was painted. Paints which did not
+     * draw any lines, for example because they only drew a cached image, do
+     * not replace the values of the previous paint.
+     *
+     * @param index Position of the axes in painting order
+     * @param points Number of drawn points
+     * @param skipped Number of values outside of the limits or decimated
+     */
+    synchronized void axesPainted(int index, long points, long skipped) {
+        if (index >= axesCount || points + skipped == 0) {
+            return;
+        }
+        axesPoints[index] = points;
+        axesSkipped[index] = skipped;
+    }
+
+    /**
+     * Records a finished paint.
+     *
+     * @param start System.nanoTime at the start of the paint
+     * @param duration Nanoseconds the paint took
+     * @param points Number of drawn points
+     * @param skipped Number of values outside of the limits or decimated
+     */
+    synchronized void framePainted(long start, long duration, long points,
+            long skipped) {
+        frameStart[nextFrame] = start;
+        frameNanos[nextFrame] = duration;
+        framePoints[nextFrame] = points;
+        frameSkipped[nextFrame] = skipped;
+        nextFrame = (nextFrame + 1) % SAMPLES;
+        frameCount = Math.min(frameCount + 1, SAMPLES);
+        paints++;
+    }
+
+    /**
+     * Calculates the metrics of the recent frames.
+     *
+     * @return snapshot of the current values
+     */
+    public synchronized RenderMetrics getMetrics() {
+        long[] sorted = new long[frameCount];
+        long points = 0;
+        long skipped = 0;
+        for (int idx = 0; idx < frameCount; idx++) {
+            sorted[idx] = frameNanos[idx];
+            points += framePoints[idx];
+            skipped += frameSkipped[idx];
+        }
+        Arrays.sort(sorted);
+        double[] axesRatios = new double[axesCount];
+        for (int idx = 0; idx < axesCount; idx++) {
+            axesRatios[idx] = ratio(axesPoints[idx], axesSkipped[idx]);
+        }
+        return new RenderMetrics(frameCount, getFrameRate(),
+                percentile(sorted, 0.5), percentile(sorted, 0.95),
+                percentile(sorted, 0.99), percentile(sorted, 1.0),
+                repaintRequests.get(), paints,
+                frameCount == 0 ? 0.0 : (double) points / frameCount,
+                ratio(points, skipped), axesRatios);
+    }
+
+    /**
+     * Counts the frames within one second before the most recent one. If the
+     * recorded frames cover less than a second, the rate is calculated from
+     * the time between the first and the last of them.
+     */
+    private double getFrameRate() {
+        if (frameCount == 0) {
+            return 0.0;
+        }
+        long newest = frameStart[(nextFrame + SAMPLES - 1) % SAMPLES];
+        long oldest = newest;
+        int frames = 0;
+        for (int idx = 1; idx <= frameCount; idx++) {
+            long start = frameStart[(nextFrame + SAMPLES - idx) % SAMPLES];
+            if (newest - start >= SECOND_NANOS) {
+                return frames; // the frames cover a full second
+            }
+            oldest = start;
+            frames++;
+        }
+        if (frames < 2 || newest == oldest) {
+            return frames;
+        }
+        return (double) (frames - 1) * SECOND_NANOS / (newest - oldest);
+    }
+
+    /**
+     * Nearest rank percentile of sorted nanosecond values in milliseconds.
+     */
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int rank = (int) Math.ceil(p * sorted.length);
+        return sorted[Math.max(rank, 1) - 1] / 1e6;
+    }
+
+    private static double ratio(long points, long skipped) {
+        return (double) (points + skipped) / Math.max(points, 1);
+    }
+
+    @Override
+    public double getFramesPerSecond() {
+        return getMetrics().getFramesPerSecond();
+    }
+
+    @Override
+    public double getFrameTimeMedian() {
+        return getMetrics().getFrameTimeMedian();
+    }
+
+    @Override
+    public double getFrameTime95thPercentile() {
+        return getMetrics().getFrameTime95thPercentile();
+    }
+
+    @Override
+    public double getFrameTime99thPercentile() {
+        return getMetrics().getFrameTime99thPercentile();
+    }
+
+    @Override
+    public double getFrameTimeMax() {
+        return getMetrics().getFrameTimeMax();
+    }
+
+    @Override
+    public long getRepaintRequests() {
+        return repaintRequests.get();
+    }
+
+    @Override
+    public synchronized long getPaints() {
+        return paints;
+    }
+
+    @Override
+    public double getPointsPerFrame() {
+        return getMetrics().getPointsPerFrame();
+    }
+
+    @Override
+    public double getDecimationRatio() {
+        return getMetrics().getDecimationRatio();
+    }
+
+    @Override
+    public double[] getAxesDecimationRatios() {
+        return getMetrics().getAxesDecimationRatios();
+    }
+
+    @Override
+    public synchronized void reset() {
+        frameCount = 0;
+        nextFrame = 0;
+        paints = 0;
+        Arrays.fill(axesPoints, 0L);
+        Arrays.fill(axesSkipped, 0L);
+        repaintRequests.set(0);
+    }
+
+    /**
+     * Registers these statistics at the platform MBean server with the object
+     * name com.hartrusion.plot:type=RenderStatistics,name=<i>name</i>. A
+     * previous registration of this object is removed.
+     *
+     * @param name Name to tell the figures apart, like the title of the
+     * window which displays it.
+     * @return the object name under which the statistics were registered.
+     */
+    public synchronized ObjectName registerMBean(String name) {
+        unregisterMBean();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName on = new ObjectName(
+                    "com.hartrusion.plot:type=RenderStatistics,name="
+                    + ObjectName.quote(name));
+            server.registerMBean(this, on);
+            objectName = on;
+            return on;
+        } catch (MalformedObjectNameException ex) {
+            throw new IllegalArgumentException("Invalid name.", ex);
+        } catch (JMException ex) {
+            throw new IllegalArgumentException(
+                    "Statistics can not be registered with this name.", ex);
+        }
+    }
+
+    /**
+     * Removes the registration at the platform MBean server, if there is
+     * one.
+     */
+    public synchronized void unregisterMBean() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                    .unregisterMBean(objectName);
+        } catch (InstanceNotFoundException ex) {
+            // was removed by someone else, nothing to do
+        } catch (JMException ex) {
+            throw new IllegalStateException(ex);
+        }
+        objectName = null;
+    }
+}
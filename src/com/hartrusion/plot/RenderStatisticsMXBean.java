@@ -0,0 +1,60 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 Viktor Alexander Hartung.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.hartrusion.plot;
+
+/**
+ * Management interface of the render statistics of a figure, allowing to
+ * watch the rendering load with JMX clients like JConsole or a monitoring
+ * system. All times are in milliseconds. Each attribute is calculated from
+ * the recent frames when it is read.
+ *
+ * @author Viktor Alexander Hartung
+ */
+public interface RenderStatisticsMXBean {
+
+    double getFramesPerSecond();
+
+    double getFrameTimeMedian();
+
+    double getFrameTime95thPercentile();
+
+    double getFrameTime99thPercentile();
+
+    double getFrameTimeMax();
+
+    long getRepaintRequests();
+
+    long getPaints();
+
+    double getPointsPerFrame();
+
+    double getDecimationRatio();
+
+    double[] getAxesDecimationRatios();
+
+    /**
+     * Discards all recorded frames and sets the counters to zero.
+     */
+    void reset();
+}
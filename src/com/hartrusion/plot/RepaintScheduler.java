@@ -0,0 +1,294 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 Viktor Alexander Hartung.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.hartrusion.plot;
+
+import java.awt.Rectangle;
+import javax.swing.JComponent;
+import javax.swing.Timer;
+
+/**
+ * Repaints a component at a limited frame rate. Instead of calling repaint on
+ * each change, which floods the event dispatch thread when data changes
+ * quickly, changes only mark the component or an area of it as dirty. A timer
+ * then repaints everything that was marked since the previous frame at once.
+ * The timer only runs while something is marked. It is started by the first
+ * mark and stops again after a number of frames in which nothing was marked,
+ * so components which are not modified do not wake up the event dispatch
+ * thread.
+ *
+ * <p>
+ * The dirty methods can be called from any thread, all other methods are
+ * intended to be called on the event dispatch thread. The counters can be
+ * read from any thread.
+ *
+ * @author Viktor Alexander Hartung
+ */
+public class RepaintScheduler {
+
+    /**
+     * Time after which a requested repaint is considered lost, which happens
+     * if the component is not visible.
+     */
+    private static final long LOST_FRAME_NANOS = 1_000_000_000L;
+
+    /**
+     * Number of frames in a row without anything marked dirty after which the
+     * timer stops.
+     */
+    private static final int IDLE_FRAMES = 10;
+
+    private final JComponent component;
+
+    private final Timer timer;
+
+    private int maxFrameRate = 60;
+
+    /**
+     * Area to repaint with the next frame, guarded by this object. Null if
+     * nothing is dirty.
+     */
+    private Rectangle dirtyArea;
+    private boolean dirtyAll;
+
+    /**
+     * True between start and stop, guarded by this object. The timer is only
+     * running if something was marked dirty in the meantime.
+     */
+    private boolean started;
+
+    /**
+     * Number of frames in a row in which nothing was marked dirty.
+     */
+    private int idleFrames;
+
+    /**
+     * True from requesting a repaint until the component is painted.
+     */
+    private boolean framePending;
+    private long frameRequested;
+
+    private volatile long framesRendered;
+    private volatile long framesSkipped;
+    private volatile long framesLate;
+
+    /**
+     * Creates a scheduler for the given component. It does not repaint
+     * anything until it is started.
+     *
+     * @param component Component to repaint. Its paint method has to call
+     * framePainted.
+     */
+    public RepaintScheduler(JComponent component) {
+        this.component = component;
+        timer = new Timer(1000 / maxFrameRate, e -> nextFrame());
+    }
+
+    /**
+     * Marks the whole component to be repainted with the next frame.
+     */
+    public void markDirty() {
+        synchronized (this) {
+            dirtyAll = true;
+            wakeUp();
+        }
+    }
+
+    /**
+     * Marks an area of the component to be repainted with the next frame.
+     *
+     * @param area Area in the coordinates of the component
+     */
+    public void markDirty(Rectangle area) {
+        synchronized (this) {
+            if (dirtyArea == null) {
+                dirtyArea = new Rectangle(area);
+            } else {
+                dirtyArea.add(area);
+            }
+            wakeUp();
+        }
+    }
+
+    /**
+     * Starts the timer if the scheduler is started and the timer stopped
+     * because nothing was marked dirty. Called with the lock of this object
+     * held.
+     */
+    private void wakeUp() {
+        if (started && !timer.isRunning()) {
+            idleFrames = 0;
+            timer.start();
+        }
+    }
+
+    /**
+     * Starts repainting dirty areas, usually when the component gets
+     * displayed. The timer itself is started once something is marked dirty.
+     */
+    public synchronized void start() {
+        started = true;
+        if (dirtyAll || dirtyArea != null) {
+            wakeUp();
+        }
+    }
+
+    /**
+     * Stops repainting. Areas marked dirty stay dirty until the scheduler is
+     * started again.
+     */
+    public synchronized void stop() {
+        started = false;
+        timer.stop();
+        framePending = false;
+    }
+
+    /**
+     * Returns whether the scheduler was started and not stopped again. The
+     * timer might be stopped anyway if nothing was marked dirty recently.
+     *
+     * @return true between start and stop
+     */
+    public synchronized boolean isStarted() {
+        return started;
+    }
+
+    /**
+     * Returns whether the timer which repaints the dirty areas is currently
+     * running.
+     *
+     * @return true if frames are scheduled
+     */
+    public boolean isRunning() {
+        return timer.isRunning();
+    }
+
+    public int getMaxFrameRate() {
+        return maxFrameRate;
+    }
+
+    /**
+     * Sets the number of frames per second at which dirty areas get
+     * repainted.
+     *
+     * @param maxFrameRate frames per second, default is 60.
+     */
+    public void setMaxFrameRate(int maxFrameRate) {
+        if (maxFrameRate < 1 || maxFrameRate > 1000) {
+            throw new IllegalArgumentException("Illegal frame rate.");
+        }
+        this.maxFrameRate = maxFrameRate;
+        timer.setDelay(1000 / maxFrameRate);
+        timer.setInitialDelay(1000 / maxFrameRate);
+    }
+
+    private void nextFrame() {
+        if (framePending) {
+            if (System.nanoTime() - frameRequested < LOST_FRAME_NANOS) {
+                // The previous frame was not painted yet, keep the dirty
+                // areas for the next frame instead of piling up repaints.
+                return;
+            }
+            framePending = false;
+        }
+        Rectangle area;
+        boolean all;
+        synchronized (this) {
+            area = dirtyArea;
+            all = dirtyAll;
+            dirtyArea = null;
+            dirtyAll = false;
+            if (!all && area == null) {
+                framesSkipped++;
+                if (++idleFrames >= IDLE_FRAMES) {
+                    timer.stop(); // restarted by the next markDirty
+                }
+                return;
+            }
+            idleFrames = 0;
+        }
+        framePending = true;
+        frameRequested = System.nanoTime();
+        if (all) {
+            component.repaint();
+        } else {
+            component.repaint(area);
+        }
+    }
+
+    /**
+     * Tells the scheduler that the component was painted. To be called from
+     * the paint method of the component.
+     */
+    public void framePainted() {
+        if (!framePending) {
+            return; // painted for other reasons
+        }
+        framePending = false;
+        framesRendered++;
+        if (System.nanoTime() - frameRequested
+                > 1_000_000_000L / maxFrameRate) {
+            framesLate++;
+        }
+    }
+
+    /**
+     * Number of frames that were repainted because something was marked
+     * dirty.
+     *
+     * @return count since creation or reset
+     */
+    public long getFramesRendered() {
+        return framesRendered;
+    }
+
+    /**
+     * Number of frames that were not repainted as nothing was marked dirty.
+     * Only frames while the timer was running are counted.
+     *
+     * @return count since creation or reset
+     */
+    public long getFramesSkipped() {
+        return framesSkipped;
+    }
+
+    /**
+     * Number of rendered frames that were painted more than one frame period
+     * after they were requested, which means that painting can not keep up
+     * with the frame rate.
+     *
+     * @return count since creation or reset
+     */
+    public long getFramesLate() {
+        return framesLate;
+    }
+
+    /**
+     * Sets all frame counters to zero.
+     */
+    public void resetCounters() {
+        framesRendered = 0;
+        framesSkipped = 0;
+        framesLate = 0;
+    }
+}
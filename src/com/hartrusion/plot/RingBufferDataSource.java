@@ -0,0 +1,330 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 Viktor Alexander Hartung.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.hartrusion.plot;
+
+/**
+ * Holds a fixed number of the most recent x and y values for live signal
+ * displays. New values are appended at the end, and if the buffer is full, the
+ * oldest values get overwritten. The memory used stays the same no matter how
+ * many values get appended.
+ *
+ * <p>
+ * Min and max values of the buffer content are kept up to date with each
+ * append, so a line displaying the buffer never has to scan all values for
+ * autoscaling. Use Line.setDataSource to display the buffer content. Index 0
+ * of this data source is the oldest value in the buffer.
+ *
+ * @author Viktor Alexander Hartung
+ */
+public class RingBufferDataSource implements LineDataSource {
+
+    private final int capacity;
+
+    private final float[] xdata;
+    private final float[] ydata;
+
+    /**
+     * Sequence number of the next value that will be appended. The value with
+     * sequence number s is stored at index s % capacity.
+     */
+    private long nextSequence = 0;
+
+    /**
+     * Number of values currently stored.
+     */
+    private int size = 0;
+
+    /**
+     * Marks if the x value at this index is less than the previous x value (or
+     * if one of them is NaN). The first value in the buffer is never marked.
+     */
+    private final boolean[] descent;
+
+    /**
+     * Number of marked entries in descent. If zero, x values are sorted.
+     */
+    private int descents = 0;
+
+    /**
+     * Incremented on each modification of the buffer content.
+     */
+    private long modCount = 0;
+
+    private final MonotonicDeque xMinDeque;
+    private final MonotonicDeque xMaxDeque;
+    private final MonotonicDeque yMinDeque;
+    private final MonotonicDeque yMaxDeque;
+
+    /**
+     * Creates a new, empty buffer.
+     *
+     * @param capacity Maximum number of values that will be held.
+     */
+    public RingBufferDataSource(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Illegal capacity.");
+        }
+        this.capacity = capacity;
+        xdata = new float[capacity];
+        ydata = new float[capacity];
+        descent = new boolean[capacity];
+        xMinDeque = new MonotonicDeque(xdata, false);
+        xMaxDeque = new MonotonicDeque(xdata, true);
+        yMinDeque = new MonotonicDeque(ydata, false);
+        yMaxDeque = new MonotonicDeque(ydata, true);
+    }
+
+    /**
+     * Appends a value pair at the end of the buffer. If the buffer is full,
+     * the oldest value pair will be removed.
+     *
+     * @param x
+     * @param y
+     */
+    public synchronized void append(float x, float y) {
+        appendValue(x, y);
+    }
+
+    /**
+     * Appends multiple value pairs at the end of the buffer. If the buffer is
+     * full, the oldest value pairs will be removed.
+     *
+     * @param x Array containing x values
+     * @param y Array containing y values
+     * @param offset Index of the first value in the arrays to append
+     * @param length Number of values to append
+     */
+    public synchronized void appendBatch(float[] x, float[] y,
+            int offset, int length) {
+        if (offset < 0 || length < 0
+                || offset + length > x.length || offset + length > y.length) {
+            throw new IllegalArgumentException("Invalid range");
+        }
+        // Values that would be overwritten within this batch anyway do not
+        // need to be added at all.
+        if (length > capacity) {
+            offset += length - capacity;
+            length = capacity;
+        }
+        for (int idx = offset; idx < offset + length; idx++) {
+            appendValue(x[idx], y[idx]);
+        }
+    }
+
+    /**
+     * Removes all values from the buffer.
+     */
+    public synchronized void clear() {
+        while (size > 0) {
+            removeOldest();
+        }
+        modCount++;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+    @Override
+    public double getX(int index) {
+        return xdata[physicalIndex(index)];
+    }
+
+    @Override
+    public double getY(int index) {
+        return ydata[physicalIndex(index)];
+    }
+
+    @Override
+    public void getX(int from, int to, double[] dst, int offset) {
+        copy(xdata, from, to, dst, offset);
+    }
+
+    @Override
+    public void getY(int from, int to, double[] dst, int offset) {
+        copy(ydata, from, to, dst, offset);
+    }
+
+    private void copy(float[] values, int from, int to,
+            double[] dst, int offset) {
+        int p = physicalIndex(from);
+        for (int idx = from; idx < to; idx++, p++) {
+            if (p == capacity) {
+                p = 0; // continue at the beginning of the arrays
+            }
+            dst[offset++] = values[p];
+        }
+    }
+
+    /**
+     * Index in the arrays where the value with the given index, counted from
+     * the oldest value, is stored.
+     */
+    private int physicalIndex(int index) {
+        return (int) ((nextSequence - size + index) % capacity);
+    }
+
+    private void appendValue(float x, float y) {
+        if (size == capacity) {
+            removeOldest();
+        }
+        int index = (int) (nextSequence % capacity);
+        if (size > 0) {
+            // also true for NaN values
+            descent[index] = !(xdata[(int) ((nextSequence - 1) % capacity)]
+                    <= x);
+            if (descent[index]) {
+                descents++;
+            }
+        } else {
+            descent[index] = false;
+        }
+        xdata[index] = x;
+        ydata[index] = y;
+        if (Float.isFinite(x)) {
+            xMinDeque.add(nextSequence, x);
+            xMaxDeque.add(nextSequence, x);
+        }
+        if (Float.isFinite(y)) {
+            yMinDeque.add(nextSequence, y);
+            yMaxDeque.add(nextSequence, y);
+        }
+        nextSequence++;
+        size++;
+        modCount++;
+    }
+
+    private void removeOldest() {
+        long oldest = nextSequence - size;
+        xMinDeque.remove(oldest);
+        xMaxDeque.remove(oldest);
+        yMinDeque.remove(oldest);
+        yMaxDeque.remove(oldest);
+        size--;
+        if (size > 0) {
+            // The new first value has no previous value anymore.
+            int index = (int) ((oldest + 1) % capacity);
+            if (descent[index]) {
+                descent[index] = false;
+                descents--;
+            }
+        }
+    }
+
+    /**
+     * Returns a number which changes each time values are appended or the
+     * buffer is cleared.
+     *
+     * @return modification count
+     */
+    synchronized long getModCount() {
+        return modCount;
+    }
+
+    boolean isMonotonicX() {
+        return size > 0 && descents == 0;
+    }
+
+    boolean hasXValues() {
+        return !xMinDeque.isEmpty();
+    }
+
+    boolean hasYValues() {
+        return !yMinDeque.isEmpty();
+    }
+
+    float getXMin() {
+        return xMinDeque.isEmpty() ? Float.MAX_VALUE : xMinDeque.get();
+    }
+
+    float getXMax() {
+        return xMaxDeque.isEmpty() ? Float.MIN_VALUE : xMaxDeque.get();
+    }
+
+    float getYMin() {
+        return yMinDeque.isEmpty() ? Float.MAX_VALUE : yMinDeque.get();
+    }
+
+    float getYMax() {
+        return yMaxDeque.isEmpty() ? Float.MIN_VALUE : yMaxDeque.get();
+    }
+
+    /**
+     * Holds the sequence numbers of values that can still become the least
+     * (or largest) value of the buffer while older values get removed. The
+     * values of the sequence numbers are increasing (or decreasing) from the
+     * first to the last entry, so the first entry is always the least (or
+     * largest) value in the buffer.
+     */
+    private final class MonotonicDeque {
+
+        private final long[] sequence = new long[capacity];
+        private final float[] values;
+        private final boolean largest;
+        private int first = 0;
+        private int count = 0;
+
+        MonotonicDeque(float[] values, boolean largest) {
+            this.values = values;
+            this.largest = largest;
+        }
+
+        void add(long seq, float value) {
+            // Remove all entries that can never be the extreme value again
+            // as the new value will stay in the buffer longer than them.
+            float last;
+            while (count > 0) {
+                last = values[(int) (sequence[(first + count - 1) % capacity]
+                        % capacity)];
+                if (largest ? last <= value : last >= value) {
+                    count--;
+                } else {
+                    break;
+                }
+            }
+            sequence[(first + count) % capacity] = seq;
+            count++;
+        }
+
+        void remove(long seq) {
+            if (count > 0 && sequence[first] == seq) {
+                first = (first + 1) % capacity;
+                count--;
+            }
+        }
+
+        boolean isEmpty() {
+            return count == 0;
+        }
+
+        float get() {
+            return values[(int) (sequence[first] % capacity)];
+        }
+    }
+}
@@ -122,4 +122,13 @@ public class SubPlot {
         return axes.get(idx - 1);
     }
 
+    /**
+     * Number of axes in this subplot arrangement.
+     *
+     * @return nrOfAxes
+     */
+    public int getAxesCount() {
+        return axes.size();
+    }
+
 }
@@ -0,0 +1,412 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 Viktor Alexander Hartung.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.hartrusion.plot;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Rectangle2D;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Graphics which write an svg document. Each element is written to the writer
+ * as soon as it is drawn, so no document tree is built in memory. Call close
+ * after painting to finish the document.
+ *
+ * <p>
+ * Paint a figure onto it to export it as svg:
+ *
+ * <pre>
+ * try (SvgGraphics2D g = new SvgGraphics2D(writer, 640, 480)) {
+ *     figure.paint(g);
+ * }
+ * </pre>
+ *
+ * @author Viktor Alexander Hartung
+ */
+public class SvgGraphics2D extends VectorGraphics2D implements Closeable {
+
+    /**
+     * The output and what was written to it, shared by all graphics created
+     * from the same root.
+     */
+    private final Document document;
+
+    /**
+     * Creates new graphics and writes the beginning of the document.
+     *
+     * @param out Writer for the document, will be closed by close.
+     * @param width Width of the document in pixels
+     * @param height Height of the document in pixels
+     */
+    public SvgGraphics2D(Writer out, int width, int height) {
+        super(width, height);
+        document = new Document(out instanceof BufferedWriter
+                ? out : new BufferedWriter(out));
+        StringBuilder sb = document.begin(null);
+        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<svg xmlns=\"http://www.w3.org/2000/svg\"")
+                .append(" version=\"1.1\" width=\"").append(width)
+                .append("\" height=\"").append(height)
+                .append("\" viewBox=\"0 0 ").append(width).append(' ')
+                .append(height).append("\">\n");
+        document.write();
+    }
+
+    private SvgGraphics2D(SvgGraphics2D other) {
+        super(other);
+        document = other.document;
+    }
+
+    @Override
+    public Graphics create() {
+        return new SvgGraphics2D(this);
+    }
+
+    @Override
+    protected void writePath(PathIterator path, BasicStroke stroke) {
+        StringBuilder sb = document.begin(getDeviceClip());
+        int start = sb.length();
+        sb.append("<path d=\"");
+        if (!appendPathData(sb, path)) {
+            sb.setLength(start); // nothing to draw
+            document.write();
+            return;
+        }
+        sb.append('"');
+        if (stroke == null) {
+            appendColor(sb, "fill", getColor());
+            if (path.getWindingRule() == PathIterator.WIND_EVEN_ODD) {
+                sb.append(" fill-rule=\"evenodd\"");
+            }
+        } else {
+            sb.append(" fill=\"none\"");
+            appendColor(sb, "stroke", getColor());
+            sb.append(" stroke-width=\"");
+            appendNumber(sb, stroke.getLineWidth());
+            sb.append('"');
+            if (stroke.getEndCap() == BasicStroke.CAP_ROUND) {
+                sb.append(" stroke-linecap=\"round\"");
+            } else if (stroke.getEndCap() == BasicStroke.CAP_SQUARE) {
+                sb.append(" stroke-linecap=\"square\"");
+            }
+            if (stroke.getLineJoin() == BasicStroke.JOIN_ROUND) {
+                sb.append(" stroke-linejoin=\"round\"");
+            } else if (stroke.getLineJoin() == BasicStroke.JOIN_BEVEL) {
+                sb.append(" stroke-linejoin=\"bevel\"");
+            } else if (stroke.getMiterLimit() != 4F) {
+                sb.append(" stroke-miterlimit=\"");
+                appendNumber(sb, stroke.getMiterLimit());
+                sb.append('"');
+            }
+            float[] dash = stroke.getDashArray();
+            if (dash != null) {
+                sb.append(" stroke-dasharray=\"");
+                for (int idx = 0; idx < dash.length; idx++) {
+                    if (idx > 0) {
+                        sb.append(' ');
+                    }
+                    appendNumber(sb, dash[idx]);
+                }
+                sb.append("\" stroke-dashoffset=\"");
+                appendNumber(sb, stroke.getDashPhase());
+                sb.append('"');
+            }
+        }
+        sb.append("/>\n");
+        document.write();
+    }
+
+    @Override
+    protected void writeText(String text, float x, float y) {
+        StringBuilder sb = document.begin(getDeviceClip());
+        Font font = getFont();
+        sb.append("<text x=\"");
+        appendNumber(sb, x);
+        sb.append("\" y=\"");
+        appendNumber(sb, y);
+        sb.append('"');
+        AffineTransform t = getDeviceTransform();
+        if (!t.isIdentity()) {
+            sb.append(" transform=\"matrix(");
+            appendNumber(sb, t.getScaleX());
+            sb.append(' ');
+            appendNumber(sb, t.getShearY());
+            sb.append(' ');
+            appendNumber(sb, t.getShearX());
+            sb.append(' ');
+            appendNumber(sb, t.getScaleY());
+            sb.append(' ');
+            appendNumber(sb, t.getTranslateX());
+            sb.append(' ');
+            appendNumber(sb, t.getTranslateY());
+            sb.append(")\"");
+        }
+        sb.append(" font-family=\"");
+        appendFontFamily(sb, font.getFamily());
+        sb.append("\" font-size=\"");
+        appendNumber(sb, font.getSize2D());
+        sb.append('"');
+        if (font.isBold()) {
+            sb.append(" font-weight=\"bold\"");
+        }
+        if (font.isItalic()) {
+            sb.append(" font-style=\"italic\"");
+        }
+        appendColor(sb, "fill", getColor());
+        sb.append(" xml:space=\"preserve\">");
+        appendEscaped(sb, text);
+        sb.append("</text>\n");
+        document.write();
+    }
+
+    /**
+     * Finishes the document and closes the writer.
+     *
+     * @throws IOException If writing the document failed at any time.
+     */
+    @Override
+    public void close() throws IOException {
+        document.close();
+    }
+
+    /**
+     * Appends the svg path data of a path.
+     *
+     * @return false if the path does not contain any segment.
+     */
+    private static boolean appendPathData(StringBuilder sb,
+            PathIterator path) {
+        double[] coords = new double[6];
+        char previous = 0;
+        boolean empty = true;
+        for (; !path.isDone(); path.next()) {
+            int type = path.currentSegment(coords);
+            char command;
+            int points;
+            switch (type) {
+                case PathIterator.SEG_MOVETO:
+                    command = 'M';
+                    points = 1;
+                    break;
+                case PathIterator.SEG_LINETO:
+                    command = 'L';
+                    points = 1;
+                    break;
+                case PathIterator.SEG_QUADTO:
+                    command = 'Q';
+                    points = 2;
+                    break;
+                case PathIterator.SEG_CUBICTO:
+                    command = 'C';
+                    points = 3;
+                    break;
+                default:
+                    command = 'Z';
+                    points = 0;
+            }
+            // Repeated commands can be left out, which saves a lot for
+            // the long polylines of lines.
+            if (command != previous || command == 'M' || points == 0) {
+                sb.append(command);
+            } else {
+                sb.append(' ');
+            }
+            previous = command;
+            for (int idx = 0; idx < 2 * points; idx++) {
+                if (idx > 0) {
+                    sb.append(' ');
+                }
+                appendNumber(sb, coords[idx]);
+            }
+            empty = false;
+        }
+        return !empty;
+    }
+
+    private static void appendColor(StringBuilder sb, String attribute,
+            Color c) {
+        sb.append(' ').append(attribute).append("=\"#");
+        String hex = Integer.toHexString(c.getRGB() & 0xFFFFFF);
+        for (int idx = hex.length(); idx < 6; idx++) {
+            sb.append('0');
+        }
+        sb.append(hex).append('"');
+        if (c.getAlpha() != 255) {
+            sb.append(' ').append(attribute).append("-opacity=\"");
+            appendNumber(sb, c.getAlpha() / 255.0);
+            sb.append('"');
+        }
+    }
+
+    /**
+     * Appends the family, replacing the logical java font names with the
+     * generic families of svg.
+     */
+    private static void appendFontFamily(StringBuilder sb, String family) {
+        switch (family) {
+            case Font.DIALOG:
+            case Font.SANS_SERIF:
+                sb.append("sans-serif");
+                break;
+            case Font.SERIF:
+                sb.append("serif");
+                break;
+            case Font.DIALOG_INPUT:
+            case Font.MONOSPACED:
+                sb.append("monospace");
+                break;
+            default:
+                sb.append('\'');
+                appendEscaped(sb, family);
+                sb.append("', sans-serif");
+        }
+    }
+
+    private static void appendEscaped(StringBuilder sb, String text) {
+        for (int idx = 0; idx < text.length(); idx++) {
+            char c = text.charAt(idx);
+            switch (c) {
+                case '&':
+                    sb.append("&amp;");
+                    break;
+                case '<':
+                    sb.append("&lt;");
+                    break;
+                case '>':
+                    sb.append("&gt;");
+                    break;
+                case '"':
+                    sb.append("&quot;");
+                    break;
+                case '\'':
+                    sb.append("&apos;");
+                    break;
+                default:
+                    if (c >= ' ' || c == '\t') {
+                        sb.append(c); // other control chars are not allowed
+                    }
+            }
+        }
+    }
+
+    /**
+     * The writer with the state of what was already written to it. Elements
+     * are put together in a buffer and written at once. Drawing with clips
+     * puts the elements into a group which references the clip. The group is
+     * kept open as long as the clip does not change.
+     */
+    private static class Document {
+
+        private final Writer out;
+        private final StringBuilder sb = new StringBuilder();
+        private Shape clip;
+        private int clipCount;
+        private boolean closed;
+        private IOException error;
+
+        Document(Writer out) {
+            this.out = out;
+        }
+
+        /**
+         * Clears the buffer and puts the start or end of a clip group into
+         * it if the clip has changed.
+         *
+         * @param deviceClip Clip for the following element
+         * @return Buffer to append the element to.
+         */
+        StringBuilder begin(Shape deviceClip) {
+            sb.setLength(0);
+            if (closed || isSameClip(clip, deviceClip)) {
+                return sb;
+            }
+            if (clip != null) {
+                sb.append("</g>\n");
+            }
+            clip = deviceClip;
+            if (clip != null) {
+                clipCount++;
+                PathIterator path = clip.getPathIterator(null);
+                sb.append("<clipPath id=\"clip").append(clipCount)
+                        .append("\"><path d=\"");
+                appendPathData(sb, path);
+                sb.append('"');
+                if (path.getWindingRule() == PathIterator.WIND_EVEN_ODD) {
+                    sb.append(" clip-rule=\"evenodd\"");
+                }
+                sb.append("/></clipPath>\n<g clip-path=\"url(#clip")
+                        .append(clipCount).append(")\">\n");
+            }
+            return sb;
+        }
+
+        /**
+         * Writes the buffer. The first exception is kept until the document
+         * gets closed, as it can not be thrown from the drawing methods.
+         */
+        void write() {
+            if (closed || error != null || sb.length() == 0) {
+                return;
+            }
+            try {
+                out.append(sb);
+            } catch (IOException ex) {
+                error = ex;
+            }
+        }
+
+        void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            begin(null).append("</svg>\n");
+            write();
+            closed = true;
+            try {
+                out.close();
+            } catch (IOException ex) {
+                if (error == null) {
+                    error = ex;
+                }
+            }
+            if (error != null) {
+                throw error;
+            }
+        }
+
+        private static boolean isSameClip(Shape a, Shape b) {
+            // Clips that are not rectangles are only the same if they are
+            // not changed, they are kept as the same instance then.
+            return a == b || (a instanceof Rectangle2D && a.equals(b));
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 Viktor Alexander Hartung.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.hartrusion.plot;
+
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsDevice;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.geom.AffineTransform;
+import java.util.HashMap;
+
+/**
+ * Remembers the width and the laid out glyphs of strings which are drawn
+ * again and again with the same font, like tick labels and axis labels. The
+ * content is discarded as soon as the font or the font render context of the
+ * graphics object changes.
+ *
+ * <p>
+ * On raster devices, the strings are drawn as prepared glyph vectors, which
+ * saves the layout of the text on each paint. Rotated strings use a glyph
+ * vector of a rotated font, so the transform of the graphics object does not
+ * have to be changed for them. On vector devices like printers or the svg and
+ * pdf export, the strings are still drawn with drawString to keep them as
+ * text in the output.
+ *
+ * @author Viktor Alexander Hartung
+ */
+class TextLayoutCache {
+
+    /**
+     * If more different strings are held, all of them are discarded. This
+     * keeps the memory bounded while panning through ever new tick labels.
+     */
+    private static final int MAX_ENTRIES = 256;
+
+    private final HashMap<String, Entry> entries = new HashMap<>();
+
+    private FontMetrics metrics;
+    private Font font;
+    private FontRenderContext frc;
+
+    /**
+     * Font rotated by -90 degrees, created on first use.
+     */
+    private Font rotatedFont;
+
+    /**
+     * True if the graphics of the current paint draws to a printer or a
+     * vector format.
+     */
+    private boolean vectorDevice;
+
+    /**
+     * Takes the font metrics and the type of device from the graphics object
+     * which will be used for drawing the following strings.
+     *
+     * @param g2 Graphics to draw on
+     */
+    void setGraphics(Graphics2D g2) {
+        setFontMetrics(g2.getFontMetrics());
+        vectorDevice = g2.getDeviceConfiguration().getDevice().getType()
+                == GraphicsDevice.TYPE_PRINTER;
+    }
+
+    /**
+     * Sets the metrics of the font which will be used for the following
+     * calls. Cached content is discarded if the font or the render context
+     * differ from the previous metrics.
+     *
+     * @param fm Metrics of the font used for drawing
+     */
+    void setFontMetrics(FontMetrics fm) {
+        if (fm == metrics) {
+            return;
+        }
+        Font newFont = fm.getFont();
+        FontRenderContext newFrc = fm.getFontRenderContext();
+        if (metrics == null || !newFont.equals(font) || !newFrc.equals(frc)) {
+            entries.clear();
+            font = newFont;
+            frc = newFrc;
+            rotatedFont = null;
+        }
+        metrics = fm;
+    }
+
+    /**
+     * Returns the advance width of the given string in the font of the last
+     * set font metrics.
+     *
+     * @param s String to measure
+     * @return width in pixels, as FontMetrics.stringWidth would return it
+     */
+    int stringWidth(String s) {
+        return getEntry(s).width;
+    }
+
+    /**
+     * Draws the string in the same way as g2.drawString(s, x, y) does. The
+     * graphics must have been set with setGraphics before.
+     *
+     * @param g2 Graphics to draw on
+     * @param s String to draw
+     * @param x baseline start position
+     * @param y baseline position
+     */
+    void drawString(Graphics2D g2, String s, int x, int y) {
+        if (vectorDevice) {
+            g2.drawString(s, x, y);
+            return;
+        }
+        Entry entry = getEntry(s);
+        if (entry.glyphs == null) {
+            entry.glyphs = font.createGlyphVector(frc, s);
+        }
+        g2.drawGlyphVector(entry.glyphs, x, y);
+    }
+
+    /**
+     * Draws the string rotated by 90 degrees counterclockwise around its
+     * start point, so it can be read from bottom to top. The graphics must
+     * have been set with setGraphics before.
+     *
+     * @param g2 Graphics to draw on
+     * @param s String to draw
+     * @param x baseline start position
+     * @param y baseline start position, the text extends upwards from here
+     */
+    void drawRotatedString(Graphics2D g2, String s, int x, int y) {
+        if (vectorDevice) {
+            // Rotations by multiples of 90 degrees are exact, so rotating
+            // back restores the previous transform.
+            g2.rotate(-Math.PI / 2, x, y);
+            g2.drawString(s, x, y);
+            g2.rotate(Math.PI / 2, x, y);
+            return;
+        }
+        Entry entry = getEntry(s);
+        if (entry.rotatedGlyphs == null) {
+            if (rotatedFont == null) {
+                rotatedFont = font.deriveFont(
+                        AffineTransform.getRotateInstance(-Math.PI / 2));
+            }
+            entry.rotatedGlyphs = rotatedFont.createGlyphVector(frc, s);
+        }
+        g2.drawGlyphVector(entry.rotatedGlyphs, x, y);
+    }
+
+    private Entry getEntry(String s) {
+        Entry entry = entries.get(s);
+        if (entry == null) {
+            if (entries.size() >= MAX_ENTRIES) {
+                entries.clear();
+            }
+            entry = new Entry(metrics.stringWidth(s));
+            entries.put(s, entry);
+        }
+        return entry;
+    }
+
+    private static class Entry {
+
+        final int width;
+        GlyphVector glyphs;
+        GlyphVector rotatedGlyphs;
+
+        Entry(int width) {
+            this.width = width;
+        }
+    }
+}
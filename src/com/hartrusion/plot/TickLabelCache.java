@@ -0,0 +1,86 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 Viktor Alexander Hartung.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.hartrusion.plot;
+
+import java.text.NumberFormat;
+
+/**
+ * Remembers formatted tick labels by their value and number of fraction
+ * digits, so moving back to previously displayed ticks does not format them
+ * again.
+ *
+ * <p>
+ * The cache has a fixed number of entries, organized in sets of two. The set
+ * of an entry is given by the hash of its key, and if the set is full, the
+ * entry used least recently in that set is replaced. Looking up a label does
+ * not allocate anything.
+ *
+ * @author Viktor Alexander Hartung
+ */
+class TickLabelCache {
+
+    /**
+     * Number of sets is 2 ^ SET_BITS.
+     */
+    private static final int SET_BITS = 6;
+
+    private final long[] keys = new long[2 << SET_BITS];
+    private final String[] labels = new String[2 << SET_BITS];
+
+    /**
+     * True if the second entry of a set was used more recently than the
+     * first one.
+     */
+    private final boolean[] secondRecent = new boolean[1 << SET_BITS];
+
+    /**
+     * Returns the label of the given value, formatted with the given format
+     * if it is not in the cache.
+     *
+     * @param value Tick value
+     * @param fractionDigits Maximum fraction digits the format is set to
+     * @param format Format to use, set to the given fraction digits
+     * @return formatted value
+     */
+    String getLabel(float value, int fractionDigits, NumberFormat format) {
+        long key = ((long) Float.floatToIntBits(value) << 32)
+                | (fractionDigits & 0xFFFFFFFFL);
+        int set = (int) ((key * 0x9E3779B97F4A7C15L) >>> (64 - SET_BITS));
+        int first = 2 * set;
+        if (labels[first] != null && keys[first] == key) {
+            secondRecent[set] = false;
+            return labels[first];
+        }
+        if (labels[first + 1] != null && keys[first + 1] == key) {
+            secondRecent[set] = true;
+            return labels[first + 1];
+        }
+        int replaced = labels[first] == null || secondRecent[set]
+                ? first : first + 1;
+        keys[replaced] = key;
+        labels[replaced] = format.format(value);
+        secondRecent[set] = replaced != first;
+        return labels[replaced];
+    }
+}
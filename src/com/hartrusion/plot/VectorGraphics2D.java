@@ -0,0 +1,822 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 Viktor Alexander Hartung.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.hartrusion.plot;
+
+import java.awt.AlphaComposite;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsDevice;
+import java.awt.Image;
+import java.awt.Paint;
+import java.awt.Polygon;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.Stroke;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Arc2D;
+import java.awt.geom.Area;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.NoninvertibleTransformException;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Rectangle2D;
+import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.BufferedImageOp;
+import java.awt.image.ColorModel;
+import java.awt.image.ImageObserver;
+import java.awt.image.RenderedImage;
+import java.awt.image.renderable.RenderableImage;
+import java.text.AttributedCharacterIterator;
+import java.util.Map;
+
+/**
+ * Base class for graphics which write vector files instead of drawing pixels.
+ * It keeps the state like color, stroke, font, transform and clip and breaks
+ * everything that is drawn down into paths and text, which the subclass
+ * writes to its output as soon as it is drawn. Nothing is kept in memory, so
+ * the output can be of any size.
+ *
+ * <p>
+ * The graphics report a printer as device, like the graphics used for
+ * printing do. Axes therefore paint directly onto it, without using their
+ * cached images. Lines are decimated to the pixel columns of the axes as
+ * usual, so the number of points written for a line depends on the size of
+ * the figure and not on the number of values of the line.
+ *
+ * <p>
+ * Images are not drawn, and XOR mode and composites are ignored.
+ *
+ * @author Viktor Alexander Hartung
+ */
+public abstract class VectorGraphics2D extends Graphics2D {
+
+    private final GraphicsConfiguration configuration;
+
+    /**
+     * Graphics of a small image, used to get font metrics without depending
+     * on a display.
+     */
+    private final Graphics2D metrics;
+
+    private Color color = Color.BLACK;
+    private Paint paint = Color.BLACK;
+    private Color background = Color.WHITE;
+    private Font font = new Font(Font.DIALOG, Font.PLAIN, 12);
+    private Stroke stroke = new BasicStroke(1F);
+    private Composite composite = AlphaComposite.SrcOver;
+    private final RenderingHints hints;
+    private AffineTransform transform;
+
+    /**
+     * Clip in device coordinates, null if nothing is clipped.
+     */
+    private Shape clip;
+
+    /**
+     * Creates new graphics for a drawing area of the given size.
+     *
+     * @param width Width of the drawing area
+     * @param height Height of the drawing area
+     */
+    protected VectorGraphics2D(int width, int height) {
+        configuration = new VectorConfiguration(width, height);
+        metrics = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB)
+                .createGraphics();
+        hints = new RenderingHints(null);
+        transform = new AffineTransform();
+    }
+
+    /**
+     * Creates a copy of the given graphics with the same state, used to
+     * implement create.
+     *
+     * @param other Graphics to copy the state from
+     */
+    protected VectorGraphics2D(VectorGraphics2D other) {
+        configuration = other.configuration;
+        metrics = other.metrics;
+        color = other.color;
+        paint = other.paint;
+        background = other.background;
+        font = other.font;
+        stroke = other.stroke;
+        composite = other.composite;
+        hints = (RenderingHints) other.hints.clone();
+        transform = new AffineTransform(other.transform);
+        clip = other.clip;
+    }
+
+    /**
+     * Writes a path to the output, either filled with the current color or
+     * stroked.
+     *
+     * @param path Path in device coordinates
+     * @param stroke Stroke in device coordinates, or null to fill the path
+     */
+    protected abstract void writePath(PathIterator path, BasicStroke stroke);
+
+    /**
+     * Writes a text with the current font and color to the output.
+     *
+     * @param text Text, not empty
+     * @param x Position of the baseline in user coordinates
+     * @param y Position of the baseline in user coordinates
+     */
+    protected abstract void writeText(String text, float x, float y);
+
+    /**
+     * Returns the current transform from user to device coordinates without
+     * copying it. It must not be modified.
+     *
+     * @return transform
+     */
+    protected final AffineTransform getDeviceTransform() {
+        return transform;
+    }
+
+    /**
+     * Returns the current clip in device coordinates. As long as the clip is
+     * not changed, the same instance is returned.
+     *
+     * @return clip or null if nothing is clipped
+     */
+    protected final Shape getDeviceClip() {
+        return clip;
+    }
+
+    /**
+     * Appends a coordinate or size value with at most three decimals and
+     * without exponent, which can be read by both svg and pdf.
+     *
+     * @param sb Target
+     * @param value Value to append
+     */
+    protected static void appendNumber(StringBuilder sb, double value) {
+        if (!(Math.abs(value) < 1e12)) { // also NaN
+            sb.append('0');
+            return;
+        }
+        long scaled = Math.round(value * 1000.0);
+        if (scaled < 0) {
+            sb.append('-');
+            scaled = -scaled;
+        }
+        sb.append(scaled / 1000);
+        int fraction = (int) (scaled % 1000);
+        if (fraction != 0) {
+            sb.append('.');
+            sb.append((char) ('0' + fraction / 100));
+            if (fraction % 100 != 0) {
+                sb.append((char) ('0' + fraction / 10 % 10));
+                if (fraction % 10 != 0) {
+                    sb.append((char) ('0' + fraction % 10));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void draw(Shape s) {
+        if (stroke instanceof BasicStroke && isConformal(transform)) {
+            writePath(s.getPathIterator(transform), getDeviceStroke());
+        } else {
+            // The stroke would be distorted by the transform.
+            fill(stroke.createStrokedShape(s));
+        }
+    }
+
+    @Override
+    public void fill(Shape s) {
+        writePath(s.getPathIterator(transform), null);
+    }
+
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        draw(new Line2D.Float(x1, y1, x2, y2));
+    }
+
+    @Override
+    public void drawPolyline(int[] xPoints, int[] yPoints, int nPoints) {
+        drawPolyline(xPoints, yPoints, nPoints, false);
+    }
+
+    @Override
+    public void drawPolygon(int[] xPoints, int[] yPoints, int nPoints) {
+        drawPolyline(xPoints, yPoints, nPoints, true);
+    }
+
+    private void drawPolyline(int[] xPoints, int[] yPoints, int nPoints,
+            boolean closed) {
+        if (nPoints < 1) {
+            return;
+        }
+        if (stroke instanceof BasicStroke && isConformal(transform)) {
+            // Lines draw their values with polylines, those are written
+            // directly from the arrays.
+            writePath(new PolylineIterator(xPoints, yPoints, nPoints, closed,
+                    transform), getDeviceStroke());
+        } else {
+            draw(new Polygon(xPoints, yPoints, nPoints));
+        }
+    }
+
+    @Override
+    public void fillPolygon(int[] xPoints, int[] yPoints, int nPoints) {
+        fill(new Polygon(xPoints, yPoints, nPoints));
+    }
+
+    @Override
+    public void drawRect(int x, int y, int width, int height) {
+        draw(new Rectangle(x, y, width, height));
+    }
+
+    @Override
+    public void fillRect(int x, int y, int width, int height) {
+        fill(new Rectangle(x, y, width, height));
+    }
+
+    @Override
+    public void clearRect(int x, int y, int width, int height) {
+        Color previous = color;
+        Paint previousPaint = paint;
+        setColor(background);
+        fillRect(x, y, width, height);
+        color = previous;
+        paint = previousPaint;
+    }
+
+    @Override
+    public void drawRoundRect(int x, int y, int width, int height,
+            int arcWidth, int arcHeight) {
+        draw(new RoundRectangle2D.Float(x, y, width, height,
+                arcWidth, arcHeight));
+    }
+
+    @Override
+    public void fillRoundRect(int x, int y, int width, int height,
+            int arcWidth, int arcHeight) {
+        fill(new RoundRectangle2D.Float(x, y, width, height,
+                arcWidth, arcHeight));
+    }
+
+    @Override
+    public void drawOval(int x, int y, int width, int height) {
+        draw(new Ellipse2D.Float(x, y, width, height));
+    }
+
+    @Override
+    public void fillOval(int x, int y, int width, int height) {
+        fill(new Ellipse2D.Float(x, y, width, height));
+    }
+
+    @Override
+    public void drawArc(int x, int y, int width, int height,
+            int startAngle, int arcAngle) {
+        draw(new Arc2D.Float(x, y, width, height, startAngle, arcAngle,
+                Arc2D.OPEN));
+    }
+
+    @Override
+    public void fillArc(int x, int y, int width, int height,
+            int startAngle, int arcAngle) {
+        fill(new Arc2D.Float(x, y, width, height, startAngle, arcAngle,
+                Arc2D.PIE));
+    }
+
+    @Override
+    public void drawString(String str, int x, int y) {
+        drawString(str, (float) x, (float) y);
+    }
+
+    @Override
+    public void drawString(String str, float x, float y) {
+        if (str == null) {
+            throw new NullPointerException("String is null.");
+        }
+        if (!str.isEmpty()) {
+            writeText(str, x, y);
+        }
+    }
+
+    @Override
+    public void drawString(AttributedCharacterIterator iterator,
+            int x, int y) {
+        drawString(iterator, (float) x, (float) y);
+    }
+
+    @Override
+    public void drawString(AttributedCharacterIterator iterator,
+            float x, float y) {
+        // Attributes are not supported, only the text is drawn.
+        StringBuilder sb = new StringBuilder();
+        for (char c = iterator.first(); c != AttributedCharacterIterator.DONE;
+                c = iterator.next()) {
+            sb.append(c);
+        }
+        drawString(sb.toString(), x, y);
+    }
+
+    @Override
+    public void drawGlyphVector(GlyphVector g, float x, float y) {
+        fill(g.getOutline(x, y));
+    }
+
+    @Override
+    public boolean drawImage(Image img, int x, int y,
+            ImageObserver observer) {
+        return true;
+    }
+
+    @Override
+    public boolean drawImage(Image img, int x, int y, int width, int height,
+            ImageObserver observer) {
+        return true;
+    }
+
+    @Override
+    public boolean drawImage(Image img, int x, int y, Color bgcolor,
+            ImageObserver observer) {
+        return true;
+    }
+
+    @Override
+    public boolean drawImage(Image img, int x, int y, int width, int height,
+            Color bgcolor, ImageObserver observer) {
+        return true;
+    }
+
+    @Override
+    public boolean drawImage(Image img, int dx1, int dy1, int dx2, int dy2,
+            int sx1, int sy1, int sx2, int sy2, ImageObserver observer) {
+        return true;
+    }
+
+    @Override
+    public boolean drawImage(Image img, int dx1, int dy1, int dx2, int dy2,
+            int sx1, int sy1, int sx2, int sy2, Color bgcolor,
+            ImageObserver observer) {
+        return true;
+    }
+
+    @Override
+    public boolean drawImage(Image img, AffineTransform xform,
+            ImageObserver obs) {
+        return true;
+    }
+
+    @Override
+    public void drawImage(BufferedImage img, BufferedImageOp op,
+            int x, int y) {
+    }
+
+    @Override
+    public void drawRenderedImage(RenderedImage img, AffineTransform xform) {
+    }
+
+    @Override
+    public void drawRenderableImage(RenderableImage img,
+            AffineTransform xform) {
+    }
+
+    @Override
+    public void copyArea(int x, int y, int width, int height,
+            int dx, int dy) {
+        // There are no pixels which could be copied.
+    }
+
+    @Override
+    public boolean hit(Rectangle rect, Shape s, boolean onStroke) {
+        if (onStroke) {
+            s = stroke.createStrokedShape(s);
+        }
+        return transform.createTransformedShape(s).intersects(rect);
+    }
+
+    @Override
+    public void dispose() {
+    }
+
+    @Override
+    public GraphicsConfiguration getDeviceConfiguration() {
+        return configuration;
+    }
+
+    @Override
+    public Color getColor() {
+        return color;
+    }
+
+    @Override
+    public void setColor(Color c) {
+        if (c != null) {
+            color = c;
+            paint = c;
+        }
+    }
+
+    @Override
+    public Paint getPaint() {
+        return paint;
+    }
+
+    /**
+     * Sets the paint. Only colors are supported, for other paints, the
+     * previous color is kept.
+     *
+     * @param paint Paint to use
+     */
+    @Override
+    public void setPaint(Paint paint) {
+        if (paint instanceof Color) {
+            setColor((Color) paint);
+        } else if (paint != null) {
+            this.paint = paint;
+        }
+    }
+
+    @Override
+    public void setPaintMode() {
+    }
+
+    @Override
+    public void setXORMode(Color c1) {
+    }
+
+    @Override
+    public Color getBackground() {
+        return background;
+    }
+
+    @Override
+    public void setBackground(Color color) {
+        background = color;
+    }
+
+    @Override
+    public Composite getComposite() {
+        return composite;
+    }
+
+    @Override
+    public void setComposite(Composite comp) {
+        composite = comp;
+    }
+
+    @Override
+    public Font getFont() {
+        return font;
+    }
+
+    @Override
+    public void setFont(Font font) {
+        if (font != null) {
+            this.font = font;
+        }
+    }
+
+    @Override
+    public FontMetrics getFontMetrics(Font f) {
+        return metrics.getFontMetrics(f);
+    }
+
+    @Override
+    public FontRenderContext getFontRenderContext() {
+        return metrics.getFontRenderContext();
+    }
+
+    @Override
+    public Stroke getStroke() {
+        return stroke;
+    }
+
+    @Override
+    public void setStroke(Stroke s) {
+        stroke = s;
+    }
+
+    @Override
+    public void setRenderingHint(RenderingHints.Key hintKey,
+            Object hintValue) {
+        hints.put(hintKey, hintValue);
+    }
+
+    @Override
+    public Object getRenderingHint(RenderingHints.Key hintKey) {
+        return hints.get(hintKey);
+    }
+
+    @Override
+    public void setRenderingHints(Map<?, ?> hints) {
+        this.hints.clear();
+        this.hints.putAll(hints);
+    }
+
+    @Override
+    public void addRenderingHints(Map<?, ?> hints) {
+        this.hints.putAll(hints);
+    }
+
+    @Override
+    public RenderingHints getRenderingHints() {
+        return (RenderingHints) hints.clone();
+    }
+
+    @Override
+    public void translate(int x, int y) {
+        transform.translate(x, y);
+    }
+
+    @Override
+    public void translate(double tx, double ty) {
+        transform.translate(tx, ty);
+    }
+
+    @Override
+    public void rotate(double theta) {
+        transform.rotate(theta);
+    }
+
+    @Override
+    public void rotate(double theta, double x, double y) {
+        transform.rotate(theta, x, y);
+    }
+
+    @Override
+    public void scale(double sx, double sy) {
+        transform.scale(sx, sy);
+    }
+
+    @Override
+    public void shear(double shx, double shy) {
+        transform.shear(shx, shy);
+    }
+
+    @Override
+    public void transform(AffineTransform tx) {
+        transform.concatenate(tx);
+    }
+
+    @Override
+    public void setTransform(AffineTransform tx) {
+        transform = new AffineTransform(tx);
+    }
+
+    @Override
+    public AffineTransform getTransform() {
+        return new AffineTransform(transform);
+    }
+
+    @Override
+    public Shape getClip() {
+        if (clip == null) {
+            return null;
+        }
+        try {
+            return transformShape(clip, transform.createInverse());
+        } catch (NoninvertibleTransformException ex) {
+            return null;
+        }
+    }
+
+    @Override
+    public Rectangle getClipBounds() {
+        Shape userClip = getClip();
+        return userClip == null ? null : userClip.getBounds();
+    }
+
+    @Override
+    public void setClip(int x, int y, int width, int height) {
+        setClip(new Rectangle(x, y, width, height));
+    }
+
+    @Override
+    public void setClip(Shape clip) {
+        this.clip = clip == null ? null : transformShape(clip, transform);
+    }
+
+    @Override
+    public void clipRect(int x, int y, int width, int height) {
+        clip(new Rectangle(x, y, width, height));
+    }
+
+    @Override
+    public void clip(Shape s) {
+        if (clip == null) {
+            setClip(s);
+            return;
+        }
+        Shape deviceShape = transformShape(s, transform);
+        if (clip instanceof Rectangle2D
+                && deviceShape instanceof Rectangle2D) {
+            clip = ((Rectangle2D) clip).createIntersection(
+                    (Rectangle2D) deviceShape);
+        } else {
+            Area area = new Area(clip);
+            area.intersect(new Area(deviceShape));
+            clip = area;
+        }
+    }
+
+    /**
+     * Transforms a shape, keeping rectangles as rectangles if possible, so
+     * the clip can be compared and written as a rectangle.
+     */
+    private static Shape transformShape(Shape s, AffineTransform t) {
+        if (s instanceof Rectangle2D && t.getShearX() == 0.0
+                && t.getShearY() == 0.0) {
+            Rectangle2D r = (Rectangle2D) s;
+            Rectangle2D.Double result = new Rectangle2D.Double();
+            result.setFrameFromDiagonal(
+                    t.getScaleX() * r.getMinX() + t.getTranslateX(),
+                    t.getScaleY() * r.getMinY() + t.getTranslateY(),
+                    t.getScaleX() * r.getMaxX() + t.getTranslateX(),
+                    t.getScaleY() * r.getMaxY() + t.getTranslateY());
+            return result;
+        }
+        return t.createTransformedShape(s);
+    }
+
+    /**
+     * Returns true if the transform keeps angles and scales all directions
+     * the same way, so a stroke can be written with a scaled width.
+     */
+    private static boolean isConformal(AffineTransform t) {
+        double a = t.getScaleX();
+        double b = t.getShearX();
+        double c = t.getShearY();
+        double d = t.getScaleY();
+        return (a == d && b == -c) || (a == -d && b == c);
+    }
+
+    private BasicStroke getDeviceStroke() {
+        BasicStroke s = (BasicStroke) stroke;
+        double scale = Math.sqrt(Math.abs(transform.getDeterminant()));
+        if (scale == 1.0) {
+            return s;
+        }
+        float[] dash = s.getDashArray();
+        if (dash != null) {
+            dash = dash.clone();
+            for (int idx = 0; idx < dash.length; idx++) {
+                dash[idx] *= scale;
+            }
+        }
+        return new BasicStroke((float) (s.getLineWidth() * scale),
+                s.getEndCap(), s.getLineJoin(), s.getMiterLimit(),
+                dash, (float) (s.getDashPhase() * scale));
+    }
+
+    /**
+     * Iterates over the points of a polyline given by int arrays, without
+     * copying them into a shape first.
+     */
+    private static class PolylineIterator implements PathIterator {
+
+        private final int[] xPoints;
+        private final int[] yPoints;
+        private final int nPoints;
+        private final boolean closed;
+        private final AffineTransform transform;
+        private int index;
+
+        PolylineIterator(int[] xPoints, int[] yPoints, int nPoints,
+                boolean closed, AffineTransform transform) {
+            this.xPoints = xPoints;
+            this.yPoints = yPoints;
+            this.nPoints = nPoints;
+            this.closed = closed;
+            this.transform = transform;
+        }
+
+        @Override
+        public int getWindingRule() {
+            return WIND_NON_ZERO;
+        }
+
+        @Override
+        public boolean isDone() {
+            return index >= (closed ? nPoints + 1 : nPoints);
+        }
+
+        @Override
+        public void next() {
+            index++;
+        }
+
+        @Override
+        public int currentSegment(float[] coords) {
+            if (index == nPoints) {
+                return SEG_CLOSE;
+            }
+            coords[0] = xPoints[index];
+            coords[1] = yPoints[index];
+            transform.transform(coords, 0, coords, 0, 1);
+            return index == 0 ? SEG_MOVETO : SEG_LINETO;
+        }
+
+        @Override
+        public int currentSegment(double[] coords) {
+            if (index == nPoints) {
+                return SEG_CLOSE;
+            }
+            coords[0] = xPoints[index];
+            coords[1] = yPoints[index];
+            transform.transform(coords, 0, coords, 0, 1);
+            return index == 0 ? SEG_MOVETO : SEG_LINETO;
+        }
+    }
+
+    /**
+     * Describes the output as a printer, so no images are cached for it.
+     */
+    private static class VectorConfiguration extends GraphicsConfiguration {
+
+        private final Rectangle bounds;
+        private final GraphicsDevice device = new GraphicsDevice() {
+            @Override
+            public int getType() {
+                return TYPE_PRINTER;
+            }
+
+            @Override
+            public String getIDstring() {
+                return "Vector output";
+            }
+
+            @Override
+            public GraphicsConfiguration[] getConfigurations() {
+                return new GraphicsConfiguration[]{VectorConfiguration.this};
+            }
+
+            @Override
+            public GraphicsConfiguration getDefaultConfiguration() {
+                return VectorConfiguration.this;
+            }
+        };
+
+        VectorConfiguration(int width, int height) {
+            bounds = new Rectangle(0, 0, width, height);
+        }
+
+        @Override
+        public GraphicsDevice getDevice() {
+            return device;
+        }
+
+        @Override
+        public ColorModel getColorModel() {
+            return ColorModel.getRGBdefault();
+        }
+
+        @Override
+        public ColorModel getColorModel(int transparency) {
+            return ColorModel.getRGBdefault();
+        }
+
+        @Override
+        public AffineTransform getDefaultTransform() {
+            return new AffineTransform();
+        }
+
+        @Override
+        public AffineTransform getNormalizingTransform() {
+            return new AffineTransform();
+        }
+
+        @Override
+        public Rectangle getBounds() {
+            return new Rectangle(bounds);
+        }
+    }
+}
@@ -79,7 +79,7 @@ public final class VisualizeData {
         return currentAxes;
     }
 
-    public static void setCurrentFigure(FigurePane fp) {
+    public static void setCurrentFigure(Figure fp) {
         currentFigure = fp;
     }
 
@@ -91,6 +91,25 @@ public final class VisualizeData {
         if (xdata.length != ydata.length) {
             throw new IllegalArgumentException("Length mismatch");
         }
+        Line l = new Line();
+        l.setData(xdata, ydata);
+        plot(l);
+    }
+
+    /**
+     * Plots the values provided by a data source. Other than the plot command
+     * with arrays, the values are not copied, the line displays the current
+     * values of the source each time it gets painted.
+     *
+     * @param source Data source providing the line values.
+     */
+    public static void plot(LineDataSource source) {
+        Line l = new Line();
+        l.setDataSource(source);
+        plot(l);
+    }
+
+    private static void plot(Line l) {
         // weather we use an already existing plot or create a new one or use
         // a still existing window totally depends on what is already existing.
         // This is the desired behaviour of this command.
@@ -118,24 +137,24 @@ public final class VisualizeData {
             }
         }
         // now we have a currentAxes as the axes registered itself with
-        // the static method. we can now add a new line, add the data to the
-        // line and add it to the axes.
-        Line l = new Line();
-        l.setData(xdata, ydata);
+        // the static method. we can now add the line to the axes.
         currentAxes.addLine(l);
     }
 
+    /**
+     * Plots double values. The values are copied once into the line, which
+     * keeps and draws them with double precision.
+     *
+     * @param xdata
+     * @param ydata
+     */
     public static void plot(double[] xdata, double[] ydata) {
         if (xdata.length != ydata.length) {
             throw new IllegalArgumentException("Length mismatch");
         }
-        float[] x = new float[xdata.length];
-        float[] y = new float[ydata.length];
-        for (int idx = 0; idx < xdata.length; idx++) {
-            x[idx] = (float) xdata[idx];
-            y[idx] = (float) ydata[idx];
-        }
-        plot(x, y);
+        Line l = new Line();
+        l.setData(xdata, ydata);
+        plot(l);
     }
 
     public static void plotyy(float[] x1data, float[] y1data, 
@@ -26,6 +26,7 @@ package com.hartrusion.plot;
 import java.awt.FontMetrics;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 
 /**
  *
@@ -52,8 +53,9 @@ class XAxisRuler extends AxisRuler {
     }
 
     public void awtPaintComponents(Graphics g) {
-        setGraphics((Graphics2D) g);
-        FontMetrics fm = g.getFontMetrics();
+        Graphics2D g2 = (Graphics2D) g;
+        setGraphics(g2);
+        textCache.setGraphics(g2);
 
         g.drawLine(coordinates[0], placement,
                 coordinates[1], placement);
@@ -82,14 +84,14 @@ class XAxisRuler extends AxisRuler {
                 continue; // ticks out of range
             }
             if (location.equals("top")) {
-                g.drawString(tickLabels[idx],
+                textCache.drawString(g2, tickLabels[idx],
                         tickCoordinates[idx]
-                        - fm.stringWidth(tickLabels[idx]) / 2,
+                        - textCache.stringWidth(tickLabels[idx]) / 2,
                         placement - 2);
             } else {
-                g.drawString(tickLabels[idx],
+                textCache.drawString(g2, tickLabels[idx],
                         tickCoordinates[idx]
-                        - fm.stringWidth(tickLabels[idx]) / 2,
+                        - textCache.stringWidth(tickLabels[idx]) / 2,
                         placement + 14);
             }
         }
@@ -99,10 +101,28 @@ class XAxisRuler extends AxisRuler {
             // direction, minus the labels half-length to center it.
             // Y-Position: placement (Y-coordinate of the X-axes) and more
             // 32 px down.
-            g.drawString(label,
+            textCache.drawString(g2, label,
                     coordinates[0] + (coordinates[1] - coordinates[0]) / 2
-                    - fm.stringWidth(label) / 2,
+                    - textCache.stringWidth(label) / 2,
                     placement + 32);
         }
     }
+
+    @Override
+    void addBounds(FontMetrics fm, Rectangle bounds) {
+        // tick labels are centered on the tick, below or above the line
+        int halfWidth = getMaxTickLabelWidth(fm) / 2 + 1;
+        int top = placement - tickLength - 2 - fm.getAscent();
+        int bottom = placement + Math.max(tickLength, 14 + fm.getDescent());
+        if (labelVisible) {
+            int center = coordinates[0] + (coordinates[1] - coordinates[0]) / 2;
+            textCache.setFontMetrics(fm);
+            int labelHalfWidth = textCache.stringWidth(label) / 2 + 1;
+            bounds.add(center - labelHalfWidth, top);
+            bounds.add(center + labelHalfWidth, top);
+            bottom = placement + 32 + fm.getDescent();
+        }
+        bounds.add(coordinates[0] - halfWidth, top);
+        bounds.add(coordinates[1] + halfWidth, bottom);
+    }
 }
@@ -26,7 +26,7 @@ package com.hartrusion.plot;
 import java.awt.FontMetrics;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
-import java.awt.geom.AffineTransform;
+import java.awt.Rectangle;
 
 /**
  *
@@ -73,12 +73,17 @@ class YAxisRuler extends AxisRuler {
      * @param placement
      */
     public void setPlacement(int placement) {
+        if (this.placement != placement) {
+            modCount++;
+        }
         this.placement = placement;
     }
 
     public void awtPaintComponents(Graphics g) {
-        setGraphics((Graphics2D) g);
+        Graphics2D g2 = (Graphics2D) g;
+        setGraphics(g2);
         FontMetrics fm = g.getFontMetrics();
+        textCache.setGraphics(g2);
 
         g.drawLine(placement, coordinates[0],
                 placement, coordinates[1]);
@@ -115,28 +120,29 @@ class YAxisRuler extends AxisRuler {
                 continue; // ticks out of range
             }
             if (location.equals("right")) {
-                g.drawString(tickLabels[idx],
+                textCache.drawString(g2, tickLabels[idx],
                         placement + 5,
                         tickCoordinates[idx] + 5); // y: a bit down
                 // Track the string withs for end positon
                 outerYTickLabelPosition = Math.max(outerYTickLabelPosition,
                         placement + 5
                         + fm.getMaxAscent()
-                        + fm.stringWidth(tickLabels[idx]));
+                        + textCache.stringWidth(tickLabels[idx]));
             } else {
                 // align them right by using the string width
-                g.drawString(tickLabels[idx],
-                        placement - fm.stringWidth(tickLabels[idx]) - 5,
+                int width = textCache.stringWidth(tickLabels[idx]);
+                textCache.drawString(g2, tickLabels[idx],
+                        placement - width - 5,
                         tickCoordinates[idx] + 5); // y: a bit down
                 outerYTickLabelPosition = Math.min(outerYTickLabelPosition,
-                        placement - 5 - fm.stringWidth(tickLabels[idx]));
+                        placement - 5 - width);
             }
         }
         // draw Y-Label, which is rotated
         if (labelVisible) {
             int xPosition, yPosition;
             yPosition = (coordinates[0] + (coordinates[1] - coordinates[0]) / 2)
-                    + fm.stringWidth(label) / 2;
+                    + textCache.stringWidth(label) / 2;
             if (location.equals("right")) {
                 // Y-Label on the right side:
                 xPosition = Math.max(
@@ -156,21 +162,38 @@ class YAxisRuler extends AxisRuler {
                         placement - 5);
             }
 
-            // Rotate coordinate system but keep parent transformation which
-            // shifted the coordinates already in parent element.
-            AffineTransform previousTransform = ((Graphics2D) g).getTransform();
-            AffineTransform withRot = new AffineTransform(previousTransform);
-            withRot.concatenate(AffineTransform.getRotateInstance(
-                    -Math.PI / 2, xPosition, yPosition));
-            ((Graphics2D) g).setTransform(withRot);
-            ((Graphics2D) g).drawString(label, xPosition, yPosition);
-            ((Graphics2D) g).setTransform(previousTransform); // undo transform
+            // Rotated around the start point, without touching the
+            // transformation of the graphics object.
+            textCache.drawRotatedString(g2, label, xPosition, yPosition);
+        }
+    }
 
-            // Another solution:
-            // Graphics2D g2 = (Graphics2D) g.create();
-            // g2.rotate(-Math.PI / 2, xPosition, yPosition);
-            // g2.drawString(label, xPosition, yPosition);
-            // g2.dispose(); // dump it
+    @Override
+    void addBounds(FontMetrics fm, Rectangle bounds) {
+        // Tick labels are placed a bit down from the tick, the rotated label
+        // is placed beside the widest tick label.
+        int width = getMaxTickLabelWidth(fm);
+        int top = Math.min(coordinates[0], coordinates[1]) + 5
+                - fm.getAscent();
+        int bottom = Math.max(coordinates[0], coordinates[1]) + 5
+                + fm.getDescent();
+        int left, right;
+        if (location.equals("right")) {
+            left = placement - tickLength;
+            right = placement + 5 + fm.getMaxAscent() + width
+                    + fm.getHeight();
+        } else {
+            left = placement - 15 - width - fm.getHeight();
+            right = placement + tickLength;
+        }
+        if (labelVisible) {
+            int center = coordinates[0] + (coordinates[1] - coordinates[0]) / 2;
+            textCache.setFontMetrics(fm);
+            int labelHalfWidth = textCache.stringWidth(label) / 2 + 1;
+            top = Math.min(top, center - labelHalfWidth);
+            bottom = Math.max(bottom, center + labelHalfWidth);
         }
+        bounds.add(left, top);
+        bounds.add(right, bottom);
     }
 }
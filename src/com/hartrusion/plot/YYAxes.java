@@ -1,7 +1,9 @@
 package com.hartrusion.plot;
 
 import java.awt.Color;
+import java.awt.FontMetrics;
 import java.awt.Graphics;
+import java.awt.Rectangle;
 
 /**
  * An extension of the default X/Y axes system featuring two Y, each on one
@@ -24,7 +26,7 @@ public class YYAxes extends Axes {
      * @param axes Axes number, with 1 being the left primary axes and 2 being
      * the right secondary axes.
      */
-    public void addLine(int axes, Line l) {
+    public synchronized void addLine(int axes, Line l) {
         if (!hold) {
             lines.clear();
         }
@@ -32,11 +34,12 @@ public class YYAxes extends Axes {
             // Mostly the same as the super method but line gets assigned with
             // the secondary y-axis.
             lines.add(l);
+            linesModCount++;
             if (l.getLineColor() == null) {
                 l.setLineColor(new Color(0, 127, 0));
             }
             l.initComponent(xaxis, secondaryYaxis);
-            VisualizeData.setCurrentAxes(this);
+            makeCurrent();
         } else if (axes == 1) {
             super.addLine(l);
         } else {
@@ -44,7 +47,7 @@ public class YYAxes extends Axes {
         }
     }
 
-    public void yLim(int target, float y1, float y2) {
+    public synchronized void yLim(int target, float y1, float y2) {
         if (target == 2) {
             secondaryYaxis.setLim(y1, y2);
             secondaryYaxis.setTicks(y1, (y2 - y1) / 10F, y2);
@@ -63,7 +66,7 @@ public class YYAxes extends Axes {
      * primary axes.
      * @param s String to write.
      */
-    public void ylabel(int target, String s) {
+    public synchronized void ylabel(int target, String s) {
         if (target == 2) {
             secondaryYaxis.setLabel(s);
         } else if (target == 1) {
@@ -74,7 +77,7 @@ public class YYAxes extends Axes {
     }
 
     @Override
-    public void autoY() {
+    public synchronized void autoY() {
         super.autoY();
         this.autoY(2);
     }
@@ -85,28 +88,32 @@ public class YYAxes extends Axes {
      * @param target Axes nr (1: primary left, 2: secondary right, 3 and more
      * are additional axes on the left).
      */
-    public void autoY(int target) {
+    public synchronized void autoY(int target) {
         if (target == 1) {
             super.autoY();
         } else if (target == 2) {
             boolean valueFound = false;
             float yMax = Float.MIN_VALUE;
             float yMin = Float.MAX_VALUE;
+            float lineMin, lineMax;
             for (Line l : lines) {
                 if (l.getYAxis() != secondaryYaxis) {
                     continue; // This line is not assigned to the secondary Y
                 }
-                if (l.getYMin() == Float.MAX_VALUE) {
+                l.invalidateExternalData();
+                lineMin = l.getYMin();
+                lineMax = l.getYMax();
+                if (lineMin == Float.MAX_VALUE) {
                     continue; // probably just an array of NaN.
                 }
-                if (l.getYMin() == Float.MIN_VALUE) {
+                if (lineMin == Float.MIN_VALUE) {
                     continue; // probably just an array of NaN.
                 }
-                if (l.getYMin() < yMin) {
-                    yMin = l.getYMin();
+                if (lineMin < yMin) {
+                    yMin = lineMin;
                 }
-                if (l.getYMax() > yMax) {
-                    yMax = l.getYMax();
+                if (lineMax > yMax) {
+                    yMax = lineMax;
                 }
                 valueFound = true;
             }
@@ -122,29 +129,50 @@ public class YYAxes extends Axes {
     }
 
     @Override
-    public void awtPaintComponents(Graphics g,
-            float parentWidth, float parentHeight) {
-        super.awtPaintComponents(g, parentWidth, parentHeight);
-
-        // Paint the additional axes afterward. Lines were already drawn in
-        // the super call.
+    protected void updateLayout(float parentWidth, float parentHeight) {
+        super.updateLayout(parentWidth, parentHeight);
         secondaryYaxis.setCoordinates(boxCoordinates[3], boxCoordinates[1]);
         secondaryYaxis.updatePlacement(xaxis);
-        if (secondaryYaxis.isVisible()) {
+    }
+
+    @Override
+    protected int getPaintStages() {
+        // The secondary ruler is painted above the primary lines.
+        return super.getPaintStages() + 1;
+    }
+
+    @Override
+    protected void paintDecoration(Graphics g, int stage) {
+        if (stage < super.getPaintStages()) {
+            super.paintDecoration(g, stage);
+        } else if (secondaryYaxis.isVisible()) {
             secondaryYaxis.awtPaintComponents(g);
         }
+    }
 
-        // Plot lines assigned to the secondary y axes
-        for (Line l : lines) {
-            if (l.getYAxis() != secondaryYaxis) {
-                continue; // skip foreign lines (only for extensions of Axes)
-            }
-            l.awtPaintComponents(g);
+    @Override
+    protected void addDecorationBounds(FontMetrics fm, Rectangle bounds) {
+        super.addDecorationBounds(fm, bounds);
+        if (secondaryYaxis.isVisible()) {
+            secondaryYaxis.addBounds(fm, bounds);
+        }
+    }
+
+    @Override
+    protected int getDecorationModCount() {
+        return super.getDecorationModCount() + secondaryYaxis.getModCount();
+    }
+
+    @Override
+    protected int getPaintStage(Line l) {
+        if (l.getYAxis() == secondaryYaxis) {
+            return super.getPaintStages();
         }
+        return super.getPaintStage(l);
     }
 
     @Override
-    public void applyZoomBox(int startX, int startY, int endX, int endY) {
+    public synchronized void applyZoomBox(int startX, int startY, int endX, int endY) {
         super.applyZoomBox(startX, startY, endX, endY);
         float y1 = secondaryYaxis.getValueForCoordinate(startY);
         float y2 = secondaryYaxis.getValueForCoordinate(endY);
@@ -156,7 +184,7 @@ public class YYAxes extends Axes {
     }
 
     @Override
-    public void applyZoomPoint(int x, int y, float factor) {
+    public synchronized void applyZoomPoint(int x, int y, float factor) {
         super.applyZoomPoint(x, y, factor);
         float valY = secondaryYaxis.getValueForCoordinate(y);
         float rangeY = (secondaryYaxis.lim[1] - secondaryYaxis.lim[0]) * factor;
@@ -169,7 +197,7 @@ public class YYAxes extends Axes {
     }
 
     @Override
-    public void applyPan(int dx, int dy) {
+    public synchronized void applyPan(int dx, int dy) {
         super.applyPan(dx, dy);
         float valY1 = secondaryYaxis.getValueForCoordinate(boxCoordinates[1]);
         float valY2 = secondaryYaxis.getValueForCoordinate(boxCoordinates[1] + dy);
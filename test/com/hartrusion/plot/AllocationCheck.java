@@ -0,0 +1,121 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 Viktor Alexander Hartung.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.hartrusion.plot;
+
+import com.sun.management.ThreadMXBean;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Paints a figure and axes with unchanged lines into an image over and over
+ * and checks that the paints do not allocate any bytes once the paint
+ * methods are compiled. Allocations which happen only once, like those of
+ * the compiler getting to the paint methods, are tolerated by measuring
+ * several rounds and expecting at least one of them to allocate nothing.
+ *
+ * @author Viktor Alexander Hartung
+ */
+public class AllocationCheck {
+
+    private static final int WARM_UP_PAINTS = 10000;
+    private static final int ROUNDS = 10;
+    private static final int PAINTS_PER_ROUND = 1000;
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        ThreadMXBean threads
+                = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        FigureJPane figure = new FigureJPane();
+        figure.setSize(400, 300);
+        Axes axes = figure.getLastAxes();
+        axes.setHold(true);
+        for (int idx = 0; idx < 5; idx++) {
+            axes.addLine(sine(100000, idx + 1));
+        }
+        axes.autoX();
+        axes.autoY();
+
+        YYAxes yyAxes = new YYAxes();
+        yyAxes.setHold(true);
+        yyAxes.addLine(1, sine(1000, 1));
+        yyAxes.addLine(2, sine(1000, 2));
+        yyAxes.autoX();
+        yyAxes.autoY();
+
+        MYAxes myAxes = new MYAxes();
+        myAxes.setHold(true);
+        for (int idx = 1; idx <= 3; idx++) {
+            myAxes.addLine(idx, sine(1000, idx));
+        }
+        myAxes.autoX();
+        myAxes.autoY();
+
+        BufferedImage image
+                = new BufferedImage(400, 300, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        for (int idx = 0; idx < WARM_UP_PAINTS; idx++) {
+            paint(g, figure, yyAxes, myAxes);
+        }
+
+        long thread = Thread.currentThread().getId();
+        long least = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS && least > 0; round++) {
+            long before = threads.getThreadAllocatedBytes(thread);
+            for (int idx = 0; idx < PAINTS_PER_ROUND; idx++) {
+                paint(g, figure, yyAxes, myAxes);
+            }
+            least = Math.min(least,
+                    threads.getThreadAllocatedBytes(thread) - before);
+        }
+        g.dispose();
+
+        System.out.println("Bytes allocated by " + PAINTS_PER_ROUND
+                + " paints: " + least);
+        if (least != 0) {
+            throw new AssertionError("Paint with unchanged structure "
+                    + "allocated " + least + " bytes.");
+        }
+    }
+
+    private static void paint(Graphics2D g, FigureJPane figure,
+            YYAxes yyAxes, MYAxes myAxes) {
+        figure.paintComponent(g);
+        yyAxes.awtPaintComponents(g, 399F, 299F);
+        myAxes.awtPaintComponents(g, 399F, 299F);
+    }
+
+    private static Line sine(int length, float frequency) {
+        float[] xdata = new float[length];
+        float[] ydata = new float[length];
+        for (int idx = 0; idx < length; idx++) {
+            xdata[idx] = (float) idx;
+            ydata[idx] = (float) Math.sin(0.001 * frequency * idx);
+        }
+        Line l = new Line();
+        l.setData(xdata, ydata);
+        return l;
+    }
+}
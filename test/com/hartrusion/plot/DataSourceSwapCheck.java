@@ -0,0 +1,100 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 Viktor Alexander Hartung.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.hartrusion.plot;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * Replaces the ring buffer of a line with another one which holds one value
+ * less but was changed one more time, and checks that the cached image of the
+ * axes is rendered again. The next paint has to look the same as a new axes
+ * which shows the second buffer right away.
+ *
+ * @author Viktor Alexander Hartung
+ */
+public class DataSourceSwapCheck {
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        RingBufferDataSource first = ramp(100, 1F);
+        RingBufferDataSource second = ramp(99, -1F);
+
+        Axes axes = axes();
+        Line l = new Line();
+        l.setDataSource(first);
+        axes.addLine(l);
+        paint(axes);
+        l.setDataSource(second);
+        BufferedImage swapped = paint(axes);
+
+        Axes fresh = axes();
+        Line expected = new Line();
+        expected.setDataSource(second);
+        fresh.addLine(expected);
+        BufferedImage reference = paint(fresh);
+
+        if (!equal(swapped, reference)) {
+            throw new AssertionError("Cached image was painted after the "
+                    + "data source was replaced.");
+        }
+        System.out.println("Image rendered again after the swap.");
+    }
+
+    private static Axes axes() {
+        Axes axes = new Axes();
+        axes.setHold(true);
+        axes.xLim(0F, 100F);
+        axes.yLim(-100F, 100F);
+        return axes;
+    }
+
+    private static RingBufferDataSource ramp(int length, float slope) {
+        RingBufferDataSource buffer = new RingBufferDataSource(length);
+        for (int idx = 0; idx < length; idx++) {
+            buffer.append((float) idx, slope * idx);
+        }
+        return buffer;
+    }
+
+    private static BufferedImage paint(Axes axes) {
+        BufferedImage image
+                = new BufferedImage(400, 300, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        axes.awtPaintComponents(g, 399F, 299F);
+        g.dispose();
+        return image;
+    }
+
+    private static boolean equal(BufferedImage a, BufferedImage b) {
+        for (int y = 0; y < a.getHeight(); y++) {
+            for (int x = 0; x < a.getWidth(); x++) {
+                if (a.getRGB(x, y) != b.getRGB(x, y)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}